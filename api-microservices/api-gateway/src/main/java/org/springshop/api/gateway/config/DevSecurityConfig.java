@@ -40,6 +40,9 @@ public class DevSecurityConfig {
                         .pathMatchers("/actuator/**").permitAll()
                         
                         // Rutas protegidas de microservicios
+                        // Reservas de stock y eventos de órdenes: solo llamadas internas entre servicios, no por el gateway
+                        .pathMatchers("/api/v2/products/stock/**").denyAll()
+                        .pathMatchers("/api/v2/shipments/events/**", "/api/v2/payments/events/**").denyAll()
                         .pathMatchers("/api/v2/products/**").permitAll()             
                         .pathMatchers("/api/v2/carts/**").authenticated()
                         .pathMatchers("/api/v2/orders/**").authenticated()
@@ -70,6 +73,7 @@ public class DevSecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:5173", "http://localhost:8080")); // Frontend permitido
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(List.of("*")); // Permitir Authorization header
+        configuration.setExposedHeaders(List.of("X-Next-Cursor")); // Cursor del catálogo paginado
         configuration.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
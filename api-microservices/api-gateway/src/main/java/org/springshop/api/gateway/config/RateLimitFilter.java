@@ -0,0 +1,182 @@
+package org.springshop.api.gateway.config;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limitador de peticiones local (token bucket) por sujeto del JWT, o por IP en peticiones anónimas.
+ * Uso en una ruta: {@code RateLimitFilter=10, 20} (tokens por segundo, capacidad de ráfaga).
+ *
+ * Cada ruta tiene sus propios buckets. Al superar el límite se responde 429 con Retry-After y se
+ * incrementa la métrica gateway.ratelimit.rejected (etiquetada por ruta).
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private final Cache<String, TokenBucket> buckets;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.max-buckets:100000}") long maxBuckets,
+            @Value("${gateway.rate-limit.idle-minutes:10}") long idleMinutes) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        // Los buckets inactivos se descartan: un bucket que vuelve a crearse empieza lleno,
+        // igual que uno que lleva tiempo sin usarse
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .build();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        if (config.getReplenishRate() <= 0 || config.getBurstCapacity() <= 0) {
+            throw new IllegalArgumentException("RateLimitFilter requires replenishRate and burstCapacity greater than 0");
+        }
+        return (exchange, chain) -> {
+            String routeId = routeId(exchange);
+            return resolveClientKey(exchange).flatMap(clientKey -> {
+                TokenBucket bucket = buckets.get(routeId + ":" + clientKey,
+                        key -> new TokenBucket(config.getBurstCapacity(), config.getReplenishRate()));
+                long waitNanos = bucket.tryConsume();
+
+                if (waitNanos == 0) {
+                    exchange.getResponse().getHeaders().set(REMAINING_HEADER, String.valueOf(bucket.available()));
+                    return chain.filter(exchange);
+                }
+
+                meterRegistry.counter("gateway.ratelimit.rejected", "route", routeId).increment();
+                return reject(exchange.getResponse(), waitNanos);
+            });
+        };
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    /**
+     * Sujeto del JWT (el mismo que TokenSubjectRelayFilter envía como X-Auth-Subject) o IP del cliente.
+     */
+    private static Mono<String> resolveClientKey(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> "sub:" + ((JwtAuthenticationToken) principal).getToken().getSubject())
+                .defaultIfEmpty("ip:" + clientIp(exchange));
+    }
+
+    private static String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        if (remote == null) {
+            return "unknown";
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getHeaders().set(REMAINING_HEADER, "0");
+        return response.setComplete();
+    }
+
+    /**
+     * Token bucket sin bloqueos: el estado es inmutable y se reemplaza con compareAndSet.
+     */
+    static final class TokenBucket {
+
+        private record State(double tokens, long refilledAt) {
+        }
+
+        private final double capacity;
+        private final double tokensPerNano;
+        private final AtomicReference<State> state;
+
+        TokenBucket(int capacity, int tokensPerSecond) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+            this.state = new AtomicReference<>(new State(capacity, System.nanoTime()));
+        }
+
+        /**
+         * Consume un token. Devuelve 0 si se pudo, o los nanosegundos hasta que haya uno disponible.
+         */
+        long tryConsume() {
+            while (true) {
+                State current = state.get();
+                long now = System.nanoTime();
+                double tokens = refill(current, now);
+
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / tokensPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, now))) {
+                    return 0;
+                }
+            }
+        }
+
+        long available() {
+            return (long) refill(state.get(), System.nanoTime());
+        }
+
+        private double refill(State current, long now) {
+            long elapsed = Math.max(0, now - current.refilledAt());
+            return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+        }
+    }
+
+    public static class Config {
+        private int replenishRate = 10;
+        private int burstCapacity = 20;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+    }
+}
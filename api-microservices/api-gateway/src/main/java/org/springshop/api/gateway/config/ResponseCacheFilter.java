@@ -0,0 +1,270 @@
+package org.springshop.api.gateway.config;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caché de respuestas GET en el gateway para las rutas públicas del catálogo.
+ * Uso en una ruta: {@code ResponseCacheFilter=60s} (TTL de la ruta).
+ *
+ * La clave es ruta + query. Se respeta el Cache-Control del servicio (no-store, no-cache, private y
+ * max-age acortan o impiden el cacheo) y, si la respuesta trae ETag, un If-None-Match coincidente
+ * se responde con 304 desde el gateway. Las escrituras que pasan por la ruta invalidan las entradas
+ * del mismo recurso, salvo los POST de solo lectura declarados en readOnlyPaths (p. ej. la consulta
+ * por lotes de productos). La memoria está acotada por bytes y el hit ratio se publica
+ * en las métricas gateway.response.cache.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Set<HttpMethod> WRITE_METHODS =
+            Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)=(\\d+)");
+
+    private final Cache<String, CachedResponse> cache;
+    private final long maxEntryBytes;
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry,
+            @Value("${gateway.response-cache.max-size-mb:64}") long maxSizeMb,
+            @Value("${gateway.response-cache.max-entry-kb:512}") long maxEntryKb) {
+        super(Config.class);
+        this.maxEntryBytes = maxEntryKb * 1024;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSizeMb * 1024 * 1024)
+                .weigher((String key, CachedResponse value) -> key.length() + value.body().length)
+                // Cada entrada vence con su propio TTL (el de su ruta o el max-age del servicio si es menor)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+                            long currentDuration) {
+                        return value.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.response.cache");
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Debe ir antes que NettyWriteResponseFilter para poder decorar la respuesta que este escribe
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (WRITE_METHODS.contains(request.getMethod()) && !isReadOnly(request, config)) {
+                // Una escritura sobre el recurso invalida lo cacheado bajo el mismo recurso
+                return chain.filter(exchange).doOnSuccess(done -> invalidate(request));
+            }
+            if (request.getMethod() != HttpMethod.GET) {
+                // HEAD, OPTIONS, POST de solo lectura...: ni se cachean ni invalidan
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(request);
+            CachedResponse cached = cache.getIfPresent(key);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+
+            ServerHttpResponse caching = new CachingResponseDecorator(exchange.getResponse(), key, config.getTtl());
+            return chain.filter(exchange.mutate().response(caching).build());
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + "?" + query;
+    }
+
+    // Consultas que usan POST solo para enviar un cuerpo (por ejemplo, una lista de IDs)
+    private static boolean isReadOnly(ServerHttpRequest request, Config config) {
+        return request.getMethod() == HttpMethod.POST
+                && config.getReadOnlyPaths().contains(request.getURI().getRawPath());
+    }
+
+    private void invalidate(ServerHttpRequest request) {
+        String[] segments = request.getURI().getRawPath().split("/");
+        // /api/v2/{recurso}
+        String prefix = String.join("/", Arrays.copyOf(segments, Math.min(segments.length, 4)));
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        String etag = cached.headers().getETag();
+
+        if (etag != null && matchesIfNoneMatch(exchange.getRequest(), etag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().setETag(etag);
+            response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+            return response.setComplete();
+        }
+
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag)
+                        || candidate.equals("W/" + etag) || ("W/" + candidate).equals(etag));
+    }
+
+    /**
+     * TTL con el que se puede guardar la respuesta, o null si no es cacheable.
+     */
+    private static Duration cacheableTtl(HttpStatusCode status, HttpHeaders headers, Duration routeTtl) {
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                || headers.getVary().contains("*")) {
+            return null;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return routeTtl;
+        }
+        String directives = cacheControl.toLowerCase();
+        if (directives.contains("no-store") || directives.contains("no-cache") || directives.contains("private")) {
+            return null;
+        }
+        Matcher maxAge = MAX_AGE.matcher(directives);
+        if (maxAge.find()) {
+            Duration serviceTtl = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+            if (serviceTtl.isZero()) {
+                return null;
+            }
+            return serviceTtl.compareTo(routeTtl) < 0 ? serviceTtl : routeTtl;
+        }
+        return routeTtl;
+    }
+
+    // Cabeceras que se reproducen: las de CORS las pone el gateway según el origen de cada petición
+    private static HttpHeaders storableHeaders(HttpHeaders source) {
+        HttpHeaders stored = new HttpHeaders();
+        source.forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            if (!lower.startsWith("access-control-") && !lower.equals("transfer-encoding")
+                    && !lower.equals("connection") && !lower.equals(CACHE_STATUS_HEADER.toLowerCase())) {
+                stored.put(name, List.copyOf(values));
+            }
+        });
+        return stored;
+    }
+
+    /**
+     * Decora la respuesta del servicio para guardar su cuerpo en la caché mientras se envía al cliente.
+     */
+    private class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Duration routeTtl;
+
+        CachingResponseDecorator(ServerHttpResponse delegate, String key, Duration routeTtl) {
+            super(delegate);
+            this.key = key;
+            this.routeTtl = routeTtl;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Duration ttl = cacheableTtl(getStatusCode(), getHeaders(), routeTtl);
+            long contentLength = getHeaders().getContentLength();
+            if (ttl == null || contentLength > maxEntryBytes) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(Flux.from(body)).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                if (bytes.length <= maxEntryBytes) {
+                    cache.put(key, new CachedResponse(getStatusCode(), storableHeaders(getHeaders()), bytes, ttl));
+                }
+                getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+    }
+
+    private record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Duration ttl) {
+    }
+
+    public static class Config {
+        private Duration ttl = Duration.ofSeconds(30);
+        private List<String> readOnlyPaths = List.of();
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public List<String> getReadOnlyPaths() {
+            return readOnlyPaths;
+        }
+
+        public void setReadOnlyPaths(List<String> readOnlyPaths) {
+            this.readOnlyPaths = readOnlyPaths;
+        }
+    }
+}
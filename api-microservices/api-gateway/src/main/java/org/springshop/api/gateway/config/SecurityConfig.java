@@ -34,6 +34,9 @@ public class SecurityConfig {
                         .pathMatchers("/actuator/**").permitAll()
                         
                         // Rutas protegidas de microservicios
+                        // Reservas de stock y eventos de órdenes: solo llamadas internas entre servicios, no por el gateway
+                        .pathMatchers("/api/v2/products/stock/**").denyAll()
+                        .pathMatchers("/api/v2/shipments/events/**", "/api/v2/payments/events/**").denyAll()
                         .pathMatchers("/api/v2/products/**").permitAll()
                         .pathMatchers("/api/v2/carts/**").authenticated()
                         .pathMatchers("/api/v2/orders/**").authenticated()
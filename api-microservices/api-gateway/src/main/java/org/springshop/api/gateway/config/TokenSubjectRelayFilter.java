@@ -6,23 +6,36 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 
+import reactor.core.publisher.Mono;
+
 @Component
 public class TokenSubjectRelayFilter extends AbstractGatewayFilterFactory<Object> {
 
+    public static final String SUBJECT_HEADER = "X-Auth-Subject";
+    public static final String USER_ID_HEADER = "X-User-Id";
+
     @Override
     public GatewayFilter apply(Object config) {
-        return (exchange, chain) ->
-            exchange.getPrincipal()
-                .flatMap(principal -> {
-                    if (principal instanceof JwtAuthenticationToken jwtAuth) {
-                        String subject = jwtAuth.getToken().getSubject();
-                        // Clonar request con nuevo header
-                        ServerWebExchange mutated = exchange.mutate()
-                            .request(r -> r.headers(h -> h.set("X-Auth-Subject", subject)))
-                            .build();
-                        return chain.filter(mutated);
-                    }
-                    return chain.filter(exchange);
-                });
+        return (exchange, chain) -> {
+            // Las cabeceras de identidad solo las pone el gateway, nunca el cliente
+            ServerWebExchange sanitized = exchange.mutate()
+                .request(r -> r.headers(h -> {
+                    h.remove(SUBJECT_HEADER);
+                    h.remove(USER_ID_HEADER);
+                }))
+                .build();
+
+            return sanitized.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> ((JwtAuthenticationToken) principal).getToken().getSubject())
+                .flatMap(subject -> {
+                    ServerWebExchange mutated = sanitized.mutate()
+                        .request(r -> r.headers(h -> h.set(SUBJECT_HEADER, subject)))
+                        .build();
+                    return chain.filter(mutated).then(Mono.just(true));
+                })
+                .switchIfEmpty(Mono.defer(() -> chain.filter(sanitized).then(Mono.just(true))))
+                .then();
+        };
     }
 }
@@ -1,6 +1,10 @@
 package org.springshop.cart_service.client;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -8,6 +12,14 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springshop.cart_service.model.product.Product; // Importación asumida para la clase Product
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
 @Component
 public class ProductClient {
     
@@ -16,19 +28,67 @@ public class ProductClient {
     // URL base del microservicio de productos (Obtenida de application.properties)
     private final String productServiceBaseUrl;
 
+    // Caché cercana: una sola llamada HTTP por ID aunque haya fallos concurrentes (coalescing);
+    // pasado refresh-seconds se sirve el valor anterior mientras se recarga en segundo plano.
+    // Es asíncrona y carga en hilos virtuales: una LoadingCache síncrona haría la llamada HTTP dentro
+    // de ConcurrentHashMap.compute (synchronized), anclando el hilo virtual de la petición a su carrier.
+    private final AsyncLoadingCache<Integer, Optional<Product>> cache;
+    private final Timer fetchTimer;
+
     public ProductClient(RestTemplate restTemplate, 
-                         @Value("${product.service.url}") String productServiceBaseUrl) {
+                         @Value("${product.service.url}") String productServiceBaseUrl,
+                         MeterRegistry meterRegistry,
+                         @Value("${product.client.cache.max-size:10000}") long maxSize,
+                         @Value("${product.client.cache.ttl-seconds:30}") long ttlSeconds,
+                         @Value("${product.client.cache.refresh-seconds:10}") long refreshSeconds) {
         this.restTemplate = restTemplate;
         this.productServiceBaseUrl = productServiceBaseUrl;
+        this.fetchTimer = Timer.builder("product.client.fetch")
+                .description("Latencia de las llamadas al servicio de productos")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .recordStats();
+        // refresh-seconds=0 desactiva stale-while-revalidate (solo expiración)
+        if (refreshSeconds > 0 && refreshSeconds < ttlSeconds) {
+            builder.refreshAfterWrite(Duration.ofSeconds(refreshSeconds));
+        }
+        this.cache = builder.buildAsync(new CacheLoader<Integer, Optional<Product>>() {
+            @Override
+            public Optional<Product> load(Integer productId) {
+                return fetchTimer.record(() -> fetchById(productId));
+            }
+        });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "product.client");
     }
     
     /**
-     * Busca un producto por su ID en el servicio externo de productos.
+     * Busca un producto por su ID (caché cercana; 404 también se cachea hasta el TTL).
      * Mapea la respuesta 200 a Product y la 404 a Optional.empty().
      * @param productId El ID del producto a buscar.
      * @return Un Optional que contiene el Product si existe, o un Optional vacío.
      */
     public Optional<Product> findById(Integer productId) {
+        return join(cache.get(productId));
+    }
+
+    // Propaga la excepción original del loader en lugar de la CompletionException
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Optional<Product> fetchById(Integer productId) {
         
         // 1. Construir la URL completa para el endpoint: /api/products/{id}
         String url = productServiceBaseUrl + "/api/v2/products/{id}";
@@ -53,4 +113,4 @@ public class ProductClient {
             throw new RuntimeException("Error inesperado al buscar producto: ", ex);
         }
     }
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springshop.cart_service.dto.cart.CartRequestDto;
 import org.springshop.cart_service.dto.cart.CartResponseDto;
@@ -29,9 +30,10 @@ public class CartController {
     }
 
     @GetMapping
-    public ResponseEntity<List<CartResponseDto>> getAllCarts() {
+    public ResponseEntity<List<CartResponseDto>> getAllCarts(@RequestParam(required = false) Integer cursor,
+            @RequestParam(required = false) Integer size) {
 
-        return ResponseEntity.ok(cartService.getAllCarts());
+        return cartService.getCartPage(cursor, size).toResponse();
     }
     @GetMapping("/user/{userId:\\d+}")
     public ResponseEntity<CartResponseDto> getLastCartByUser(@PathVariable Integer userId) {
@@ -73,4 +75,4 @@ public class CartController {
         cartService.clearCart(cartId);
         return ResponseEntity.noContent().build();
     }
-}
\ No newline at end of file
+}
@@ -72,4 +72,10 @@ public class CartItemController {
 
         return ResponseEntity.ok(total);
     }
+
+    @PostMapping("/total/reconcile")
+    public ResponseEntity<Double> reconcileCartTotal(@PathVariable Integer cartId) {
+
+        return ResponseEntity.ok(cartService.reconcileCartTotal(cartId));
+    }
 }
\ No newline at end of file
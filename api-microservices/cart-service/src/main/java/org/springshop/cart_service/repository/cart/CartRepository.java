@@ -1,6 +1,9 @@
 package org.springshop.cart_service.repository.cart;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springshop.cart_service.model.cart.Cart;
 
 
@@ -10,5 +13,52 @@ import java.util.List;
 
 public interface CartRepository extends JpaRepository<Cart, Integer> {
     Optional<Cart> findTopByUserIdOrderByIdDesc(Integer userId);
-    List<Cart> findAllByOrderByIdDesc();
+
+    /**
+     * IDs de una página de carritos (más recientes primero) anteriores al cursor.
+     * Se paginan los IDs y no las entidades para que el fetch join posterior no pagine en memoria.
+     */
+    @Query("SELECT c.id FROM Cart c WHERE c.id < :cursor ORDER BY c.id DESC")
+    List<Integer> findPageIds(Integer cursor, Pageable pageable);
+
+    // Carga los carritos de la página junto con sus ítems en una sola consulta
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items WHERE c.id IN :ids ORDER BY c.id DESC")
+    List<Cart> findAllWithItemsByIdIn(List<Integer> ids);
+
+    @Query("SELECT c.totalAmount FROM Cart c WHERE c.id = :cartId")
+    Optional<Double> findTotalAmountById(Integer cartId);
+
+    /**
+     * Aplica la diferencia de una línea al total de forma atómica (sin leer el carrito ni sus ítems).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Cart c SET c.totalAmount = c.totalAmount + :delta, c.updateAt = LOCAL_DATETIME WHERE c.id = :cartId")
+    int addToTotal(Integer cartId, double delta);
+
+    /**
+     * Reconstruye el total de un carrito con un único agregado SQL sobre sus ítems.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Cart c SET c.totalAmount = COALESCE((
+                SELECT SUM(ci.quantity * ci.price) FROM CartItem ci
+                WHERE ci.cart.id = c.id AND ci.productId IS NOT NULL), 0)
+            WHERE c.id = :cartId
+            """)
+    int recalculateTotal(Integer cartId);
+
+    /**
+     * Corrige solo los carritos cuyo total se ha desviado del agregado de sus ítems.
+     * Devuelve cuántos carritos se corrigieron.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Cart c SET c.totalAmount = COALESCE((
+                SELECT SUM(ci.quantity * ci.price) FROM CartItem ci
+                WHERE ci.cart.id = c.id AND ci.productId IS NOT NULL), 0)
+            WHERE ABS(c.totalAmount - COALESCE((
+                SELECT SUM(ci2.quantity * ci2.price) FROM CartItem ci2
+                WHERE ci2.cart.id = c.id AND ci2.productId IS NOT NULL), 0)) > 0.005
+            """)
+    int recalculateDriftedTotals();
 }
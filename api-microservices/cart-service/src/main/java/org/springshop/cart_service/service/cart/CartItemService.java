@@ -76,9 +76,9 @@ public class CartItemService {
             itemToSave = CartMapper.toEntity(itemDto, product.getId(), product.getPrice(), cart);
         }
         
-        // 2. Guardar y Recalcular
+        // 2. Guardar y aplicar el delta de la línea al total (con el precio guardado en la línea)
         itemToSave = cartItemRepository.save(itemToSave);
-        RecalculateCartTotal(cart); 
+        cartService.applyTotalDelta(cartId, itemToSave.getPrice() * quantityToAdd);
         
         return CartMapper.toResponseDto(itemToSave);
     }
@@ -95,7 +95,6 @@ public class CartItemService {
 
     public CartItemResponseDto updateCartItem(Integer cartId, Integer itemId, CartItemUpdateRequestDto itemDto) {
         CartItem item = findCartItemOrThrow(itemId);
-        Cart cart = cartService.findCartOrThrow(cartId);
         
         if (!item.getCart().getId().equals(cartId)) {
             throw new IllegalArgumentException("Item with id " + itemId + " does not belong to cart with id " + cartId);
@@ -112,12 +111,13 @@ public class CartItemService {
         }
         
         // 2. Mapear y Guardar
+        double oldLineTotal = lineTotal(item);
         CartMapper.updateCartItem(item, itemDto, product.getId());
         
         CartItem updatedItem = cartItemRepository.save(item);
         
-        // 3. Recalcular Total
-        RecalculateCartTotal(cart);
+        // 3. Aplicar la diferencia de la línea al total
+        cartService.applyTotalDelta(cartId, lineTotal(updatedItem) - oldLineTotal);
         
         return CartMapper.toResponseDto(updatedItem);
     }
@@ -126,7 +126,6 @@ public class CartItemService {
 
     public void deleteCartItem(Integer cartId, Integer itemId) {
         CartItem item = findCartItemOrThrow(itemId);
-        Cart cart = cartService.findCartOrThrow(cartId);
 
         if (!item.getCart().getId().equals(cartId)) {
             throw new IllegalArgumentException("Item with id " + itemId + " does not belong to cart with id " + cartId);
@@ -134,8 +133,8 @@ public class CartItemService {
 
         cartItemRepository.delete(item);
         
-        // Recalcular Total después de eliminar
-        RecalculateCartTotal(cart);
+        // Restar la línea eliminada del total
+        cartService.applyTotalDelta(cartId, -lineTotal(item));
     }
 
     // -------------------- MÉTODOS AUXILIARES --------------------
@@ -151,12 +150,12 @@ public class CartItemService {
     }
     
     /**
-     * Calcula el total del carrito y actualiza el campo totalAmount de la entidad Cart.
+     * Importe de una línea tal como lo suma la reconciliación (las líneas sin producto no cuentan).
      */
-    private void RecalculateCartTotal(Cart cart) {
-        // Asumimos que tienes un método para calcular el total en CartService
-        double newTotal = cartService.calculateCartTotals(cart.getId());
-        cart.setTotalAmount(newTotal);
-        // El @Transactional asegura que se persista.
+    private double lineTotal(CartItem item) {
+        if (item.getProductId() == null) {
+            return 0.0;
+        }
+        return item.getPrice() * item.getQuantity();
     }
 }
\ No newline at end of file
@@ -4,11 +4,13 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springshop.cart_service.dto.cart.CartRequestDto;
 import org.springshop.cart_service.dto.cart.CartResponseDto;
 import org.springshop.cart_service.dto.cart.CartItemResponseDto;
+import org.springshop.cart_service.dto.cart.CursorPage;
 import org.springshop.cart_service.mapper.cart.CartMapper;
 import org.springshop.cart_service.model.cart.Cart;
 import org.springshop.cart_service.model.user.User;
@@ -56,10 +58,17 @@ public class CartService {
                 return CartMapper.toResponseDto(cart);
         }
 
-        public List<CartResponseDto> getAllCarts() {
-                return cartRepository.findAllByOrderByIdDesc().stream()
-                                .map(CartMapper::toResponseDto)
-                                .collect(Collectors.toList());
+        /**
+         * Página de carritos por cursor: una consulta para los IDs y otra para los carritos
+         * con sus ítems, independientemente del tamaño de página.
+         */
+        @Transactional(readOnly = true)
+        public CursorPage<CartResponseDto> getCartPage(Integer cursor, Integer size) {
+                int pageSize = CursorPage.pageSize(size);
+                // Sin cursor se parte del ID máximo: la consulta no necesita un predicado "IS NULL OR"
+                int before = cursor != null ? cursor : Integer.MAX_VALUE;
+                List<Integer> ids = cartRepository.findPageIds(before, PageRequest.of(0, pageSize + 1));
+                return CursorPage.of(ids, pageSize, cartRepository::findAllWithItemsByIdIn, CartMapper::toResponseDto);
         }
 
         public Optional<CartResponseDto> getCartById(Integer id) {
@@ -99,18 +108,43 @@ public class CartService {
                                 .collect(Collectors.toList());
         }
 
+        /**
+         * Devuelve el total almacenado del carrito, que se mantiene de forma incremental
+         * con cada escritura de ítems (sin cargar ni recorrer las líneas).
+         */
         @Transactional(readOnly = true)
         public double calculateCartTotals(Integer cartId) {
-                Cart cart = findCartOrThrow(cartId);
-                return cart.getItems().stream()
+                return cartRepository.findTotalAmountById(cartId)
+                                .orElseThrow(() -> new EntityNotFoundException("Cart not found with id: " + cartId));
+        }
+
+        /**
+         * Suma al total del carrito la diferencia (precio x cantidad) de una línea modificada.
+         */
+        public void applyTotalDelta(Integer cartId, double delta) {
+                if (delta == 0.0) {
+                        return;
+                }
+                if (cartRepository.addToTotal(cartId, delta) == 0) {
+                        throw new EntityNotFoundException("Cart not found with id: " + cartId);
+                }
+        }
+
+        /**
+         * Reconstruye el total de un carrito a partir de sus ítems con un único agregado SQL.
+         */
+        public double reconcileCartTotal(Integer cartId) {
+                if (cartRepository.recalculateTotal(cartId) == 0) {
+                        throw new EntityNotFoundException("Cart not found with id: " + cartId);
+                }
+                return calculateCartTotals(cartId);
+        }
 
-                                .filter(item -> item.getProductId() != null)
-                                .mapToDouble(item -> {
-                                        double price = item.getPrice();
-                                        int quantity = item.getQuantity();
-                                        return price * quantity;
-                                })
-                                .sum();
+        /**
+         * Corrige los totales desviados de todos los carritos. Devuelve cuántos se corrigieron.
+         */
+        public int reconcileAllCartTotals() {
+                return cartRepository.recalculateDriftedTotals();
         }
 
         private User findUserOrThrow(Integer userId) {
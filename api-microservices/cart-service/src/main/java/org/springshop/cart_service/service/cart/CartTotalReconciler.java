@@ -0,0 +1,28 @@
+package org.springshop.cart_service.service.cart;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconciliación periódica de los totales de carrito. Los totales se mantienen de forma
+ * incremental; este proceso corrige cualquier desviación con un único agregado SQL.
+ */
+@Component
+public class CartTotalReconciler {
+
+    private final CartService cartService;
+
+    public CartTotalReconciler(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    @Scheduled(fixedDelayString = "${cart.total.reconcile-interval-ms:3600000}",
+            initialDelayString = "${cart.total.reconcile-interval-ms:3600000}")
+    public void reconcileTotals() {
+        int corrected = cartService.reconcileAllCartTotals();
+
+        if (corrected > 0) {
+            System.out.println("Totales de carrito corregidos en la reconciliación: " + corrected);
+        }
+    }
+}
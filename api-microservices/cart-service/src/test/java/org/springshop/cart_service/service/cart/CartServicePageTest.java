@@ -0,0 +1,94 @@
+package org.springshop.cart_service.service.cart;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springshop.cart_service.client.UserClient;
+import org.springshop.cart_service.dto.cart.CartResponseDto;
+import org.springshop.cart_service.dto.cart.CursorPage;
+import org.springshop.cart_service.model.cart.Cart;
+import org.springshop.cart_service.model.cart.CartItem;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Una página de carritos, con sus ítems, debe costar siempre dos sentencias: IDs + fetch join
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(CartService.class)
+class CartServicePageTest {
+
+    @Autowired
+    private CartService cartService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private UserClient userClient;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 10; i++) {
+            persistCart(i + 1, 3);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void firstPageLoadsCartsAndItemsInTwoStatements() {
+        CursorPage<CartResponseDto> page = cartService.getCartPage(null, 4);
+
+        assertThat(page.getItems()).hasSize(4)
+                .allSatisfy(cart -> assertThat(cart.getItems()).hasSize(3));
+        assertThat(page.getItems()).extracting(CartResponseDto::getId).isSortedAccordingTo((a, b) -> b - a);
+        assertThat(page.getNextCursor()).isEqualTo(page.getItems().get(3).getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void lastPageFromCursorLoadsInTwoStatements() {
+        CursorPage<CartResponseDto> first = cartService.getCartPage(null, 6);
+        statistics.clear();
+
+        CursorPage<CartResponseDto> last = cartService.getCartPage(first.getNextCursor(), 6);
+
+        assertThat(last.getItems()).hasSize(4);
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(last.getItems()).extracting(CartResponseDto::getId)
+                .allMatch(id -> id < first.getNextCursor());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private void persistCart(int userId, int itemCount) {
+        Cart cart = new Cart();
+        cart.setUserId(userId);
+        cart.setTotalAmount(10.0 * itemCount);
+        entityManager.persist(cart);
+
+        for (int i = 0; i < itemCount; i++) {
+            CartItem item = new CartItem();
+            item.setCart(cart);
+            item.setProductId(i + 1);
+            item.setPrice(10.0);
+            item.setQuantity(1);
+            entityManager.persist(item);
+        }
+    }
+}
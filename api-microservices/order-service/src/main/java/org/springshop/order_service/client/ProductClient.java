@@ -1,8 +1,11 @@
 package org.springshop.order_service.client;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -16,6 +19,9 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springshop.order_service.dto.product.ProductResponse;
 import org.springshop.order_service.dto.product.ProductUpdateStockRequest;
+import org.springshop.order_service.dto.product.stock.StockReservationLine;
+import org.springshop.order_service.dto.product.stock.StockReservationRequest;
+import org.springshop.order_service.dto.product.stock.StockReservationResponse;
 import org.springshop.order_service.model.product.Product; // Importación asumida para la clase Product
 
 @Component
@@ -63,6 +69,121 @@ public class ProductClient {
             throw new RuntimeException("Error inesperado al buscar producto: ", ex);
         }
     }
+    /**
+     * Busca varios productos en una sola llamada al servicio de productos (POST /batch).
+     * Los IDs inexistentes no aparecen en la lista devuelta.
+     * @param productIds Los IDs de los productos a buscar.
+     * @return Los productos encontrados.
+     */
+    public List<Product> findAllByIds(Collection<Integer> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        String url = productServiceBaseUrl + "/api/v2/products/batch";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Collection<Integer>> entity = new HttpEntity<>(productIds, headers);
+
+        try {
+            ResponseEntity<List<Product>> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                new ParameterizedTypeReference<List<Product>>() {}
+            );
+            return response.getBody() != null ? response.getBody() : List.of();
+
+        } catch (HttpClientErrorException ex) {
+            throw new RuntimeException("Error al comunicarse con el servicio de productos: " + ex.getStatusCode(), ex);
+
+        } catch (Exception ex) {
+            throw new RuntimeException("Error inesperado al buscar productos: ", ex);
+        }
+    }
+
+    /**
+     * Reserva el stock de todas las líneas en una sola llamada: el servicio de productos
+     * las aplica en una única transacción (todas o ninguna) y las retiene a nombre de la
+     * orden hasta que se confirme el pago o la reserva venza.
+     * @return El resultado por línea; reserved = false si alguna no se pudo reservar (409).
+     */
+    public StockReservationResponse reserveStock(Integer orderId, List<StockReservationLine> lines) {
+
+        String url = productServiceBaseUrl + "/api/v2/products/stock/reservations";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<StockReservationRequest> entity = new HttpEntity<>(new StockReservationRequest(orderId, lines), headers);
+
+        try {
+            ResponseEntity<StockReservationResponse> response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                entity,
+                StockReservationResponse.class
+            );
+            return response.getBody();
+
+        } catch (HttpClientErrorException.Conflict ex) {
+            // 409: stock insuficiente o producto inexistente; el cuerpo trae el detalle por línea
+            return ex.getResponseBodyAs(StockReservationResponse.class);
+
+        } catch (HttpClientErrorException ex) {
+            System.err.println("Error al reservar stock (HTTP " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString());
+            throw new RuntimeException("Fallo al reservar stock: " + ex.getMessage());
+
+        } catch (HttpServerErrorException ex) {
+            System.err.println("Error de servidor al reservar stock (HTTP " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString());
+            throw new RuntimeException("Servicio de productos falló.", ex);
+
+        } catch (ResourceAccessException ex) {
+            System.err.println("Error de conexión al servicio de productos: " + ex.getMessage());
+            throw new RuntimeException("Servicio de productos no disponible.", ex);
+        }
+    }
+
+    /**
+     * Confirma el stock retenido para la orden (pago recibido).
+     */
+    public void confirmReservation(Integer orderId) {
+        postReservationAction(orderId, "confirm");
+    }
+
+    /**
+     * Devuelve al inventario el stock retenido para la orden (pago fallido o cancelado).
+     */
+    public void releaseReservation(Integer orderId) {
+        postReservationAction(orderId, "release");
+    }
+
+    private void postReservationAction(Integer orderId, String action) {
+
+        String url = productServiceBaseUrl + "/api/v2/products/stock/reservations/{orderId}/" + action;
+
+        try {
+            restTemplate.postForEntity(url, null, Void.class, orderId);
+
+        } catch (HttpClientErrorException.Conflict ex) {
+            // 409: la reserva venció y ya no hay stock para volver a retenerla
+            System.err.println("Reserva de stock no disponible (" + action + ", orden " + orderId + "): " + ex.getResponseBodyAsString());
+            throw new IllegalStateException("La reserva de stock de la orden " + orderId + " ya no está disponible", ex);
+
+        } catch (HttpClientErrorException ex) {
+            System.err.println("Error en la reserva de stock (" + action + ", HTTP " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString());
+            throw new RuntimeException("Fallo al actualizar la reserva de stock: " + ex.getMessage());
+
+        } catch (HttpServerErrorException ex) {
+            System.err.println("Error de servidor en la reserva de stock (" + action + ", HTTP " + ex.getStatusCode() + "): " + ex.getResponseBodyAsString());
+            throw new RuntimeException("Servicio de productos falló.", ex);
+
+        } catch (ResourceAccessException ex) {
+            System.err.println("Error de conexión al servicio de productos: " + ex.getMessage());
+            throw new RuntimeException("Servicio de productos no disponible.", ex);
+        }
+    }
+
     public ProductResponse updateStock(Integer productId, Integer quantityChange) {
         
         // 1. Construir la URL completa: /api/v2/products/{productId}/stock
@@ -0,0 +1,19 @@
+package org.springshop.order_service.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Hilos virtuales para las consultas HTTP bloqueantes del checkout que se hacen en paralelo.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService checkoutLookupExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
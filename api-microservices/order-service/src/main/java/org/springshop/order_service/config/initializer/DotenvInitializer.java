@@ -9,8 +9,8 @@ public class DotenvInitializer implements ApplicationContextInitializer<Configur
     
     @Override
     public void initialize(@NonNull ConfigurableApplicationContext applicationContext) {
-        // Carga las variables de entorno desde el archivo .env
-        Dotenv dotenv = Dotenv.load();
+        // Carga las variables de entorno desde el archivo .env (si no existe, p. ej. en los tests, se usan las del entorno)
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
         dotenv.entries().forEach(entry -> System.setProperty(entry.getKey(), entry.getValue()));
     }
 }
\ No newline at end of file
@@ -12,7 +12,9 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springshop.order_service.controller.exception.StockException;
 import org.springshop.order_service.dto.checkout.CheckoutRequestDto;
@@ -21,6 +23,7 @@ import org.springshop.order_service.dto.order.OrderResponseDto;
 import org.springshop.order_service.dto.order.OrderUpdateStatus;
 import org.springshop.order_service.dto.payment.PaymentResponseDto;
 import org.springshop.order_service.model.order.Order;
+import org.springshop.order_service.service.checkout.CheckoutIdempotencyService;
 import org.springshop.order_service.service.checkout.CheckoutService;
 import org.springshop.order_service.service.order.OrderService;
 import org.springshop.order_service.client.PaymentClient;
@@ -32,19 +35,41 @@ import jakarta.persistence.EntityNotFoundException;
 @RequestMapping("/api/v2/orders")
 public class OrderController {
 
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
     private final PaymentClient paymentClient;
     private final CheckoutService checkoutService;
+    private final CheckoutIdempotencyService checkoutIdempotencyService;
 
-    public OrderController(OrderService orderService, PaymentClient paymentClient, CheckoutService checkoutService) {
+    public OrderController(OrderService orderService, PaymentClient paymentClient, CheckoutService checkoutService,
+            CheckoutIdempotencyService checkoutIdempotencyService) {
         this.orderService = orderService;
         this.paymentClient = paymentClient;
         this.checkoutService = checkoutService;
+        this.checkoutIdempotencyService = checkoutIdempotencyService;
+    }
+
+    /**
+     * Con la cabecera Idempotency-Key, los reintentos del mismo checkout devuelven la primera respuesta
+     * en lugar de crear otra orden y otra sesión de Stripe.
+     */
+    @PostMapping("/checkout")
+    public ResponseEntity<Map<String, String>> createOrderAndStartCheckout(
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody CheckoutRequestDto requestDto) {
+
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return startCheckout(requestDto);
+        }
+        if (idempotencyKey.length() > 255) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "El Idempotency-Key no puede superar 255 caracteres."));
+        }
+        return checkoutIdempotencyService.execute(idempotencyKey, requestDto, () -> startCheckout(requestDto));
     }
 
-@PostMapping("/checkout")
-  public ResponseEntity<Map<String, String>> createOrderAndStartCheckout(
-      @RequestBody CheckoutRequestDto requestDto) {
+  private ResponseEntity<Map<String, String>> startCheckout(CheckoutRequestDto requestDto) {
 
     Integer cartId = requestDto.getCartId();
     Integer userId = requestDto.getUserId();
@@ -59,6 +84,7 @@ public class OrderController {
       }
       System.out.println("cartId: " + cartId + " userId: " + userId + " addressId: " + addressId);
       Order newOrder = orderService.createOrderFromCart(cartId, userId, addressId);
+      tempOrderId = newOrder.getId();
       // 🔑 Pasar el redirectUrl al servicio de checkout
         System.out.println("Minimo hasta aqui estoy llegando, soy la linea 63");
         System.out.println("Minimo hasta aqui estoy llegando, soy la linea 64 y orderId es " + newOrder.getId());
@@ -68,7 +94,6 @@ public class OrderController {
                 redirectUrl
             );
         System.out.println("Minimo hasta aqui estoy llegando, soy la linea 70 y ");
-      tempOrderId = newOrder.getId();
       // URL de redirección
       return ResponseEntity.ok(Map.of(
           "checkoutUrl", checkoutUrl,
@@ -86,22 +111,31 @@ public class OrderController {
                     .body(Map.of("error", e.getMessage()));
         } catch (StripeException e) {
             //Revertir los cambios
-            orderService.rollbackFailedOrder(tempOrderId);
+            rollbackIfCreated(tempOrderId);
             // Error de pasarela de pago (502 Bad Gateway)
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
                     .body(Map.of("error", "Error al iniciar la sesión de Stripe: " + e.getMessage()));
         } catch (Exception e) {
             //Revertir los cambios
-            orderService.rollbackFailedOrder(tempOrderId);
+            rollbackIfCreated(tempOrderId);
             // Manejo de errores genéricos (500 Internal Server Error)
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", "Error interno al procesar la orden: " + e.getMessage()));
         }
     }
 
+    // Si la orden no llegó a crearse no hay nada que revertir: cualquier stock ya
+    // reservado vence solo en el servicio de productos.
+    private void rollbackIfCreated(Integer orderId) {
+        if (orderId != null) {
+            orderService.rollbackFailedOrder(orderId);
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<List<OrderResponseDto>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<OrderResponseDto>> getAllOrders(@RequestParam(required = false) Integer cursor,
+            @RequestParam(required = false) Integer size) {
+        return orderService.getOrderPage(null, cursor, size).toResponse();
     }
 
     @GetMapping("/{id:\\d+}")
@@ -149,11 +183,10 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(orderId, updatedStatus));
     }
     @GetMapping("/users/{userId:\\d+}")
-    public ResponseEntity<List<OrderResponseDto>> getOrdersByUserId(@PathVariable Integer userId) {
+    public ResponseEntity<List<OrderResponseDto>> getOrdersByUserId(@PathVariable Integer userId,
+            @RequestParam(required = false) Integer cursor, @RequestParam(required = false) Integer size) {
 
-        List<OrderResponseDto> orders = orderService.getOrdersByUserId(userId);
-        
-        return ResponseEntity.ok(orders);
+        return orderService.getOrderPage(userId, cursor, size).toResponse();
     }
     @GetMapping("/users/{userId:\\d+}/latest")
     public ResponseEntity<OrderResponseDto> getLatestOrderByUserId(@PathVariable Integer userId) {
@@ -162,4 +195,4 @@ public class OrderController {
                 .map(ResponseEntity::ok)
                 .orElseThrow(() -> new EntityNotFoundException("No orders found for user with id: " + userId));
     }
-}
\ No newline at end of file
+}
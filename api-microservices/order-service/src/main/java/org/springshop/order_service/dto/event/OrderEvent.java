@@ -0,0 +1,26 @@
+package org.springshop.order_service.dto.event;
+
+import java.time.LocalDateTime;
+
+import org.springshop.order_service.model.outbox.OrderEventType;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento de orden publicado a los suscriptores (envíos, pagos). eventId permite deduplicar reentregas.
+@Data
+@NoArgsConstructor
+public class OrderEvent {
+    private Long eventId;
+    private OrderEventType type;
+    private Integer orderId;
+    private Integer userId;
+    private Integer addressId;
+    private Double totalAmount;
+    private LocalDateTime occurredAt;
+    // Solo en ORDER_PAID
+    private String transactionId;
+    private Double amount;
+    private String currency;
+    private String paymentMethod;
+}
@@ -0,0 +1,54 @@
+package org.springshop.order_service.dto.order;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página de resultados por cursor (más recientes primero): nextCursor es null en la última página
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private List<T> items;
+    private Integer nextCursor;
+
+    public static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Construye la página a partir de los IDs leídos con uno de más (size + 1): si el ID extra
+     * existe hay página siguiente. Solo los IDs de la página se cargan (con sus ítems) mediante el loader,
+     * que debe devolverlos en el mismo orden.
+     */
+    public static <E, T> CursorPage<T> of(List<Integer> ids, int size,
+            Function<List<Integer>, List<E>> loader, Function<E, T> mapper) {
+        boolean hasNext = ids.size() > size;
+        List<Integer> pageIds = hasNext ? ids.subList(0, size) : ids;
+        Integer nextCursor = hasNext ? pageIds.get(size - 1) : null;
+        List<E> rows = pageIds.isEmpty() ? List.of() : loader.apply(pageIds);
+        return new CursorPage<>(rows.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Respuesta HTTP de la página: el cuerpo sigue siendo la lista y el cursor de la página siguiente
+     * viaja en X-Next-Cursor (ausente en la última página).
+     */
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor.toString());
+        }
+        return response.body(items);
+    }
+}
@@ -6,4 +6,9 @@ import lombok.Data;
 @Data
 public class OrderUpdateStatus {
     private OrderStatus status;
+    // Datos del pago (opcionales): viajan en el evento ORDER_PAID para que el servicio de pagos lo registre
+    private String transactionId;
+    private Double amount;
+    private String currency;
+    private String paymentMethod;
 }
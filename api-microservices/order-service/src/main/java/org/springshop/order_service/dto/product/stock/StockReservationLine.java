@@ -0,0 +1,13 @@
+package org.springshop.order_service.dto.product.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLine {
+    private Integer productId;
+    private Integer quantity;
+}
@@ -0,0 +1,10 @@
+package org.springshop.order_service.dto.product.stock;
+
+import lombok.Data;
+
+@Data
+public class StockReservationLineResult {
+    private Integer productId;
+    private Integer quantity;
+    private StockReservationStatus status;
+}
@@ -0,0 +1,16 @@
+package org.springshop.order_service.dto.product.stock;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    // Orden dueña de la reserva: el stock queda retenido hasta el pago o el vencimiento
+    private Integer orderId;
+    private List<StockReservationLine> lines;
+}
@@ -0,0 +1,11 @@
+package org.springshop.order_service.dto.product.stock;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class StockReservationResponse {
+    private boolean reserved;
+    private List<StockReservationLineResult> lines;
+}
@@ -0,0 +1,38 @@
+package org.springshop.order_service.model.checkout;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Respuesta registrada para un Idempotency-Key del checkout (vence con expires_at)
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "checkout_idempotency_key", indexes = {
+        @Index(name = "idx_checkout_idempotency_expires", columnList = "expires_at")
+})
+public class CheckoutIdempotencyKey {
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+    // Huella de la petición original: el mismo key con otro cuerpo se rechaza
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private IdempotencyStatus status;
+    @Column(name = "response_status")
+    private Integer responseStatus;
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,6 @@
+package org.springshop.order_service.model.checkout;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
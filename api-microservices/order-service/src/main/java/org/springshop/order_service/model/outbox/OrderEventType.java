@@ -0,0 +1,6 @@
+package org.springshop.order_service.model.outbox;
+
+public enum OrderEventType {
+    ORDER_PAID,
+    ORDER_FAILED
+}
@@ -0,0 +1,51 @@
+package org.springshop.order_service.model.outbox;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Entrega de un evento de orden a un suscriptor, escrita en la misma transacción que el cambio de la orden.
+// Una fila por suscriptor: un suscriptor caído solo retrasa sus propias entregas.
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_due", columnList = "status, next_attempt_at, id")
+})
+public class OrderOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private OrderEventType eventType;
+    @Column(name = "subscriber", nullable = false, length = 500)
+    private String subscriber;
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OrderOutboxStatus status = OrderOutboxStatus.PENDING;
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
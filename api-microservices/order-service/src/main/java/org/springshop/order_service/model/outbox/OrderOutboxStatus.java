@@ -0,0 +1,7 @@
+package org.springshop.order_service.model.outbox;
+
+public enum OrderOutboxStatus {
+    PENDING,
+    PUBLISHED,
+    DEAD
+}
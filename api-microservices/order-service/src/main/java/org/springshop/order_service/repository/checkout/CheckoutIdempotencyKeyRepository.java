@@ -0,0 +1,40 @@
+package org.springshop.order_service.repository.checkout;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.order_service.model.checkout.CheckoutIdempotencyKey;
+
+@Repository
+public interface CheckoutIdempotencyKeyRepository extends JpaRepository<CheckoutIdempotencyKey, String> {
+
+    /**
+     * Reclama el key de forma atómica: lo inserta en curso, o lo toma si el registro existente ya venció
+     * (respuesta caducada o un intento que quedó colgado). Devuelve 1 si esta petición es la dueña.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO checkout_idempotency_key "
+            + "(idempotency_key, request_hash, status, response_status, response_body, expires_at) "
+            + "VALUES (:key, :requestHash, 'IN_PROGRESS', NULL, NULL, :lockedUntil) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, "
+            + "status = 'IN_PROGRESS', response_status = NULL, response_body = NULL, expires_at = EXCLUDED.expires_at "
+            + "WHERE checkout_idempotency_key.expires_at < :now", nativeQuery = true)
+    public int tryAcquire(String key, String requestHash, LocalDateTime lockedUntil, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE CheckoutIdempotencyKey k SET k.status = org.springshop.order_service.model.checkout.IdempotencyStatus.COMPLETED, "
+            + "k.responseStatus = :responseStatus, k.responseBody = :responseBody, k.expiresAt = :expiresAt "
+            + "WHERE k.idempotencyKey = :key")
+    public int complete(String key, int responseStatus, String responseBody, LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CheckoutIdempotencyKey k WHERE k.expiresAt < :now")
+    public int deleteExpired(LocalDateTime now);
+}
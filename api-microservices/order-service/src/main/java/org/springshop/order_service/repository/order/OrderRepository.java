@@ -3,10 +3,26 @@ package org.springshop.order_service.repository.order;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springshop.order_service.model.order.Order;
 
 public interface OrderRepository extends JpaRepository<Order, Integer> {
-    public List<Order> findByUserId(Integer userId);
     public Optional<Order> findTopOrderByUserIdOrderByIdDesc(Integer userId);
+
+    /**
+     * IDs de una página de órdenes (más recientes primero) anteriores al cursor.
+     * Se paginan los IDs y no las entidades para que el fetch join posterior no pagine en memoria.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.id < :cursor ORDER BY o.id DESC")
+    List<Integer> findPageIds(Integer cursor, Pageable pageable);
+
+    // Igual, solo las de un usuario (índice user_id, id)
+    @Query("SELECT o.id FROM Order o WHERE o.userId = :userId AND o.id < :cursor ORDER BY o.id DESC")
+    List<Integer> findPageIdsByUserId(Integer userId, Integer cursor, Pageable pageable);
+
+    // Carga las órdenes de la página junto con sus ítems en una sola consulta
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids ORDER BY o.id DESC")
+    List<Order> findAllWithItemsByIdIn(List<Integer> ids);
 }
@@ -0,0 +1,21 @@
+package org.springshop.order_service.repository.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springshop.order_service.model.outbox.OrderOutboxEvent;
+
+@Repository
+public interface OrderOutboxRepository extends JpaRepository<OrderOutboxEvent, Long> {
+
+    /**
+     * Lote de entregas listas: pendientes cuyo backoff o lease ya venció, en orden de creación.
+     * SKIP LOCKED permite varias instancias del relay sin reclamar la misma entrega a la vez.
+     */
+    @Query(value = "SELECT * FROM order_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    public List<OrderOutboxEvent> lockDueEvents(LocalDateTime now, int limit);
+}
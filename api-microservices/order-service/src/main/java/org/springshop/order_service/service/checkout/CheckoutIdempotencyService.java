@@ -0,0 +1,164 @@
+package org.springshop.order_service.service.checkout;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springshop.order_service.dto.checkout.CheckoutRequestDto;
+import org.springshop.order_service.model.checkout.CheckoutIdempotencyKey;
+import org.springshop.order_service.model.checkout.IdempotencyStatus;
+import org.springshop.order_service.repository.checkout.CheckoutIdempotencyKeyRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Deduplicación del checkout por Idempotency-Key. La primera petición con un key reclama el registro y
+ * guarda su respuesta; los duplicados reciben esa misma respuesta, y los que llegan mientras la primera
+ * sigue en curso esperan a que termine. El registro vive en la base de datos, así que funciona
+ * aunque el duplicado llegue a otra instancia del servicio.
+ */
+@Service
+public class CheckoutIdempotencyService {
+
+    private static final long POLL_INTERVAL_MS = 100;
+
+    private final CheckoutIdempotencyKeyRepository idempotencyKeyRepository;
+    private final ObjectMapper objectMapper;
+    private final long ttlMinutes;
+    private final long lockSeconds;
+    private final long waitTimeoutMs;
+
+    public CheckoutIdempotencyService(CheckoutIdempotencyKeyRepository idempotencyKeyRepository,
+            ObjectMapper objectMapper,
+            @Value("${checkout.idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${checkout.idempotency.lock-seconds:60}") long lockSeconds,
+            @Value("${checkout.idempotency.wait-timeout-ms:10000}") long waitTimeoutMs) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.objectMapper = objectMapper;
+        this.ttlMinutes = ttlMinutes;
+        this.lockSeconds = lockSeconds;
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+
+    public ResponseEntity<Map<String, String>> execute(String key, CheckoutRequestDto request,
+            Supplier<ResponseEntity<Map<String, String>>> checkout) {
+        String requestHash = fingerprint(request);
+        long deadline = System.currentTimeMillis() + waitTimeoutMs;
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            if (idempotencyKeyRepository.tryAcquire(key, requestHash, now.plusSeconds(lockSeconds), now) == 1) {
+                return runAndRecord(key, checkout);
+            }
+
+            // Si el registro desapareció, el dueño anterior falló y liberó el key: se vuelve a intentar reclamarlo
+            Optional<CheckoutIdempotencyKey> existing = idempotencyKeyRepository.findById(key);
+            if (existing.isPresent()) {
+                CheckoutIdempotencyKey record = existing.get();
+                if (!record.getRequestHash().equals(requestHash)) {
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                            .body(Map.of("error", "El Idempotency-Key ya se usó con otra petición de checkout.",
+                                    "code", "IDEMPOTENCY_KEY_REUSED"));
+                }
+                if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                    return replay(record);
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Ya hay un checkout en curso con este Idempotency-Key.",
+                                "code", "IDEMPOTENCY_IN_PROGRESS"));
+            }
+            if (existing.isPresent()) {
+                sleepQuietly();
+            }
+        }
+    }
+
+    /**
+     * Elimina periódicamente los keys vencidos para que la tabla se mantenga compacta.
+     */
+    @Scheduled(fixedDelayString = "${checkout.idempotency.purge-interval-ms:600000}")
+    public void purgeExpiredKeys() {
+        int purged = idempotencyKeyRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            System.out.println("Idempotency-Keys de checkout vencidos eliminados: " + purged);
+        }
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    /**
+     * Ejecuta el checkout y registra su respuesta. Los errores 5xx ya revirtieron la orden, así que el key
+     * se libera para que el cliente pueda reintentar; el resto (éxito, 404, 409 por stock) se reproduce tal cual.
+     */
+    private ResponseEntity<Map<String, String>> runAndRecord(String key,
+            Supplier<ResponseEntity<Map<String, String>>> checkout) {
+        ResponseEntity<Map<String, String>> response;
+        try {
+            response = checkout.get();
+        } catch (RuntimeException e) {
+            idempotencyKeyRepository.deleteById(key);
+            throw e;
+        }
+
+        if (response.getStatusCode().is5xxServerError()) {
+            idempotencyKeyRepository.deleteById(key);
+        } else {
+            idempotencyKeyRepository.complete(key, response.getStatusCode().value(),
+                    toJson(response.getBody()), LocalDateTime.now().plusMinutes(ttlMinutes));
+        }
+        return response;
+    }
+
+    private ResponseEntity<Map<String, String>> replay(CheckoutIdempotencyKey record) {
+        try {
+            Map<String, String> body = record.getResponseBody() == null ? null
+                    : objectMapper.readValue(record.getResponseBody(), new TypeReference<Map<String, String>>() {});
+            return ResponseEntity.status(record.getResponseStatus()).body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta guardada ilegible para el Idempotency-Key: "
+                    + record.getIdempotencyKey(), e);
+        }
+    }
+
+    private String toJson(Map<String, String> body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta del checkout", e);
+        }
+    }
+
+    private static String fingerprint(CheckoutRequestDto request) {
+        String canonical = request.getCartId() + "|" + request.getUserId() + "|"
+                + request.getAddressId() + "|" + request.getRedirectUrl();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(POLL_INTERVAL_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera del checkout duplicado interrumpida", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.springshop.order_service.service.checkout;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springshop.order_service.client.CartClient;
@@ -15,6 +16,9 @@ import com.stripe.param.checkout.SessionCreateParams;
 
 import jakarta.transaction.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
 @Service
 @Transactional
 public class CheckoutService {
@@ -25,10 +29,17 @@ public class CheckoutService {
     private final OrderService orderService;
     private final CartClient cartClient;
     private final String WEB_BASE_URL = "http://localhost:5173";
-
-    public CheckoutService(OrderService orderService, CartClient cartClient) {
+    // Debe vencer antes que la reserva de stock del servicio de productos (stock.reservation.ttl-minutes).
+    // Stripe exige al menos 30 minutos contados al crear la sesión, que ocurre después de calcular
+    // expires_at: por eso el mínimo es 31.
+    private static final long MIN_SESSION_TTL_MINUTES = 31;
+    private final long sessionTtlMinutes;
+
+    public CheckoutService(OrderService orderService, CartClient cartClient,
+            @Value("${checkout.session.ttl-minutes:31}") long sessionTtlMinutes) {
         this.orderService = orderService;
         this.cartClient = cartClient;
+        this.sessionTtlMinutes = Math.max(MIN_SESSION_TTL_MINUTES, sessionTtlMinutes);
         log.info("CheckoutService inicializado con OrderService y CartClient.");
     }
 
@@ -79,6 +90,8 @@ public class CheckoutService {
                 .setSuccessUrl(successRedirectUrl)
                 .setCancelUrl(cancelRedirectUrl)
                 .setMode(SessionCreateParams.Mode.PAYMENT)
+                // La sesión vence antes que la reserva de stock: no se puede pagar stock ya liberado
+                .setExpiresAt(Instant.now().plus(sessionTtlMinutes, ChronoUnit.MINUTES).getEpochSecond())
                 .addPaymentMethodType(SessionCreateParams.PaymentMethodType.CARD)
                 // 3. AGREGAR LOS ITEMS (Usando la orden como un único LineItem)
                 .addLineItem(
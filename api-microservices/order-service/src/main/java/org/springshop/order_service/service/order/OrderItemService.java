@@ -66,6 +66,18 @@ public class OrderItemService {
         }
 
         // 2. CREACIÓN DEL ITEM DE ORDEN
+        return saveOrderItem(order, requestDto, product);
+    }
+
+    /**
+     * Variante para el checkout: el producto ya fue resuelto por el llamador (búsqueda por
+     * lotes) y su stock ya fue reservado junto con el resto de líneas, así que solo se crea la línea.
+     */
+    public OrderItemResponseDto createReservedOrderItem(Order order, OrderItemRequestDto requestDto, Product product) {
+        return saveOrderItem(order, requestDto, product);
+    }
+
+    private OrderItemResponseDto saveOrderItem(Order order, OrderItemRequestDto requestDto, Product product) {
         OrderItem orderItem = OrderMapper.toEntity(requestDto, product.getId(), product.getPrice(), order);
         orderItem = orderItemRepository.save(orderItem);
 
@@ -135,19 +147,13 @@ public class OrderItemService {
         // 3. Recálculo del Total de la Orden: Movido al OrderService
     }
 
+    /**
+     * Elimina los items de una orden sin tocar el stock: lo reservado en el checkout
+     * se devuelve liberando la reserva de la orden en el servicio de productos.
+     */
     public void deleteItemsByOrderId(Integer orderId) {
 
         List<OrderItem> itemsToDelete = orderItemRepository.findAllByOrderId(orderId);
-
-        for (OrderItem item : itemsToDelete) {
-            try {
-                productClient.updateStock(item.getProductId(), item.getQuantity());
-            } catch (Exception e) {
-                System.err.println("CRÍTICO: Fallo al revertir stock para producto " + item.getProductId() +
-                        " de la orden " + orderId + ". Error: " + e.getMessage());
-    
-            }
-        }
         orderItemRepository.deleteAll(itemsToDelete);
     }
     // -------------------- MÉTODOS AUXILIARES --------------------
@@ -1,11 +1,22 @@
 package org.springshop.order_service.service.order;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springshop.order_service.dto.order.CursorPage;
 import org.springshop.order_service.dto.order.OrderRequestDto;
 import org.springshop.order_service.dto.order.OrderResponseDto;
 import org.springshop.order_service.dto.order.OrderUpdateStatus;
@@ -16,18 +27,22 @@ import org.springshop.order_service.client.ShipmentClient;
 import org.springshop.order_service.client.UserClient;
 import org.springshop.order_service.controller.exception.StockException;
 import org.springshop.order_service.dto.order.OrderItemRequestDto;
-import org.springshop.order_service.dto.order.OrderItemResponseDto;
+import org.springshop.order_service.dto.product.stock.StockReservationLine;
+import org.springshop.order_service.dto.product.stock.StockReservationResponse;
+import org.springshop.order_service.dto.product.stock.StockReservationStatus;
 import org.springshop.order_service.mapper.order.OrderMapper;
 import org.springshop.order_service.model.cart.Cart;
 import org.springshop.order_service.model.cart.CartItem;
 import org.springshop.order_service.model.order.Order;
 import org.springshop.order_service.model.order.OrderItem;
 import org.springshop.order_service.model.order.OrderStatus;
+import org.springshop.order_service.model.outbox.OrderEventType;
 import org.springshop.order_service.model.address.Address;
 import org.springshop.order_service.model.product.Product;
 import org.springshop.order_service.model.shipment.Shipment;
 import org.springshop.order_service.model.user.User;
 import org.springshop.order_service.repository.order.OrderRepository;
+import org.springshop.order_service.service.outbox.OrderOutboxService;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.RollbackException;
@@ -43,10 +58,15 @@ public class OrderService {
     private final AddressClient addressClient;
     private final ProductClient productClient;
     private final ShipmentClient shipmentClient;
+    private final OrderOutboxService outboxService;
+    private final ExecutorService checkoutLookupExecutor;
+    private final long checkoutLookupTimeoutMs;
 
     public OrderService(OrderRepository orderRepository, CartClient cartClient,
             OrderItemService orderItemService, UserClient userClient,
-            AddressClient addressClient, ProductClient productClient, ShipmentClient shipmentClient) {
+            AddressClient addressClient, ProductClient productClient, ShipmentClient shipmentClient,
+            OrderOutboxService outboxService, ExecutorService checkoutLookupExecutor,
+            @Value("${checkout.lookup.timeout-ms:3000}") long checkoutLookupTimeoutMs) {
         this.orderRepository = orderRepository;
         this.cartClient = cartClient;
         this.orderItemService = orderItemService;
@@ -54,13 +74,18 @@ public class OrderService {
         this.addressClient = addressClient;
         this.productClient = productClient;
         this.shipmentClient = shipmentClient;
+        this.outboxService = outboxService;
+        this.checkoutLookupExecutor = checkoutLookupExecutor;
+        this.checkoutLookupTimeoutMs = checkoutLookupTimeoutMs;
     }
 
     public Order createOrderFromCart(Integer cartId, Integer userId, Integer addressId) {
 
-        // 1. OBTENER ENTIDADES NECESARIAS
-        Cart cart = findCartOrThrow(cartId);
-        User user = findUserOrThrow(userId);
+        // 1. OBTENER ENTIDADES NECESARIAS (en paralelo, con un plazo común)
+        CheckoutData checkoutData = fetchCheckoutData(cartId, userId, addressId);
+        Cart cart = checkoutData.cart();
+        User user = checkoutData.user();
+        Map<Integer, Product> products = checkoutData.products();
         System.out.println("Log(linea 64): cartId = " + cartId + " userId = " + userId);
         if (cart.getItems().isEmpty()) {
             System.out.println("El carro esta vacio");
@@ -78,23 +103,36 @@ public class OrderService {
         System.out.println("Log(linea 77): cartId = " + cartId + " userId = " + userId);
         double calculatedTotal = 0.0;
 
-        // 3. TRANSFERENCIA DE ITEMS Y RESERVA DE STOCK
+        // 3. VALIDACIÓN PREVIA DE STOCK (con los datos ya obtenidos, sin llamadas extra)
         for (CartItem cartItem : cart.getItems()) {
-            Integer productId = cartItem.getProductId();
-            Product product = findProductOrThrow(productId);
-            // 3A. VALIDACIÓN FINAL DE STOCK
+            Product product = products.get(cartItem.getProductId());
             if (product.getStock() < cartItem.getQuantity()) {
                 throw new StockException(
                         "Stock insuficiente para el producto: " + product.getName() +
                                 ". Stock disponible: " + product.getStock());
             }
+        }
+
+        // 4. RESERVA DE STOCK DE TODAS LAS LÍNEAS EN UNA SOLA LLAMADA
+        // (el servicio de productos la aplica en una transacción: todas o ninguna). El stock
+        // queda retenido a nombre de la orden hasta el pago; si nunca llega, la reserva vence.
+        StockReservationResponse reservation = productClient.reserveStock(savedOrder.getId(), cart.getItems().stream()
+                .map(cartItem -> new StockReservationLine(cartItem.getProductId(), cartItem.getQuantity()))
+                .collect(Collectors.toList()));
+
+        if (!reservation.isReserved()) {
+            throw new StockException(describeFailedReservation(reservation, products));
+        }
+
+        // 5. TRANSFERENCIA DE ITEMS (el stock ya está reservado)
+        for (CartItem cartItem : cart.getItems()) {
+            Product product = products.get(cartItem.getProductId());
 
-            // 3B. CREACIÓN DEL ORDER ITEM y REDUCCIÓN DE STOCK (Llamada al ItemService)
             OrderItemRequestDto itemDto = new OrderItemRequestDto(
                     product.getId(),
                     cartItem.getQuantity());
 
-            orderItemService.createOrderItem(savedOrder, itemDto);
+            orderItemService.createReservedOrderItem(savedOrder, itemDto, product);
 
             calculatedTotal += product.getPrice() * cartItem.getQuantity();
         }
@@ -115,25 +153,23 @@ public class OrderService {
                     "No se puede revertir la orden " + orderId + ". Estado actual: " + order.getStatus());
         }
 
-        // 2. REVERTIR EL STOCK RESERVADO (La acción crítica)
-        List<OrderItemResponseDto> orderItems = orderItemService.getOrderItemsByOrderId(orderId);
-
-        for (OrderItemResponseDto item : orderItems) {
-            try {
-                // Revertir el stock añadiendo la cantidad (PATCH con cantidad positiva)
-                productClient.updateStock(item.getProductId(), item.getQuantity());
+        // 2. LIBERAR EL STOCK RETENIDO (una sola llamada; idempotente en el servicio de productos)
+        try {
+            productClient.releaseReservation(orderId);
+        } catch (Exception e) {
+            // Si falla, el barrido de reservas vencidas del servicio de productos lo devolverá.
+            System.err.println("CRÍTICO: Fallo al liberar la reserva de stock de la orden " + orderId + ". Error: " + e.getMessage());
+        }
 
-            } catch (Exception e) {
-                // Manejo de CRÍTICO: Fallo en la reversión de stock.
-                System.err.println("CRÍTICO: Fallo al revertir stock para producto " + item.getProductId() + ".");
-                // Loguear el error y continuar.
-            }
+        // 3. AVISAR A LOS SUSCRIPTORES (si ya estaba FAILED, el evento se registró al cambiar de estado)
+        if (order.getStatus() == OrderStatus.PENDING) {
+            outboxService.record(order, OrderEventType.ORDER_FAILED, null);
         }
 
-        // 3. ELIMINAR ITEMS DE ORDEN ASOCIADOS
+        // 4. ELIMINAR ITEMS DE ORDEN ASOCIADOS
         orderItemService.deleteItemsByOrderId(orderId);
 
-        // 4. ELIMINAR EL REGISTRO DE LA ORDEN
+        // 5. ELIMINAR EL REGISTRO DE LA ORDEN
         orderRepository.delete(order);
 
         // *ELIMINADO*: Ya no se necesita restaurar el carrito, porque nunca se limpió.
@@ -151,10 +187,20 @@ public class OrderService {
         return OrderMapper.toResponseDto(orderRepository.save(order));
     }
 
-    public List<OrderResponseDto> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(OrderMapper::toResponseDto)
-                .collect(Collectors.toList());
+    /**
+     * Página de órdenes por cursor (todas o las de un usuario): una consulta para los IDs y otra
+     * para las órdenes con sus ítems, independientemente del tamaño de página.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponseDto> getOrderPage(Integer userId, Integer cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        int before = cursor != null ? cursor : Integer.MAX_VALUE;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        // Una consulta por forma, sin predicados "IS NULL OR" que impiden elegir el índice
+        List<Integer> ids = userId == null
+                ? orderRepository.findPageIds(before, limit)
+                : orderRepository.findPageIdsByUserId(userId, before, limit);
+        return CursorPage.of(ids, pageSize, orderRepository::findAllWithItemsByIdIn, OrderMapper::toResponseDto);
     }
 
     public Optional<OrderResponseDto> getOrderById(Integer id) {
@@ -173,7 +219,24 @@ public class OrderService {
     @Transactional
     public OrderResponseDto updateOrderStatus(Integer id, OrderUpdateStatus updatedStatus) {
         Order order = findOrderOrThrow(id);
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(updatedStatus.getStatus());
+
+        // El stock retenido en el checkout se confirma con el pago o se libera si el pago falla
+        if (previousStatus == OrderStatus.PENDING && updatedStatus.getStatus() == OrderStatus.PAID) {
+            productClient.confirmReservation(id);
+        } else if (previousStatus == OrderStatus.PENDING && updatedStatus.getStatus() == OrderStatus.FAILED) {
+            productClient.releaseReservation(id);
+        }
+
+        // Pagos y envíos reaccionan al evento del outbox (misma transacción que el cambio de estado)
+        if (previousStatus != updatedStatus.getStatus()) {
+            if (updatedStatus.getStatus() == OrderStatus.PAID) {
+                outboxService.record(order, OrderEventType.ORDER_PAID, updatedStatus);
+            } else if (updatedStatus.getStatus() == OrderStatus.FAILED) {
+                outboxService.record(order, OrderEventType.ORDER_FAILED, null);
+            }
+        }
         return OrderMapper.toResponseDto(order);
     }
 
@@ -194,12 +257,6 @@ public class OrderService {
                 .mapToDouble(item -> item.getPrice() * item.getQuantity())
                 .sum();
     }
-    public List<OrderResponseDto> getOrdersByUserId(Integer userId) {
-        List<Order> orders = orderRepository.findByUserId(userId);
-        return orders.stream()
-                .map(OrderMapper::toResponseDto)
-                .collect(Collectors.toList());
-    }
     public Optional<OrderResponseDto> getLatestOrderByUserId(Integer userId) {
         return orderRepository.findTopOrderByUserIdOrderByIdDesc(userId).map(OrderMapper::toResponseDto);
     }
@@ -239,6 +296,73 @@ public class OrderService {
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
     }
 
+    private record CheckoutData(Cart cart, User user, Map<Integer, Product> products) {
+    }
+
+    /**
+     * Carrito, usuario, dirección y productos se consultan a la vez en hilos virtuales; el lote
+     * de productos arranca en cuanto llega el carrito. La latencia queda en la de la dependencia
+     * más lenta (y no en la suma), acotada por checkout.lookup.timeout-ms.
+     */
+    private CheckoutData fetchCheckoutData(Integer cartId, Integer userId, Integer addressId) {
+        CompletableFuture<Cart> cartFuture = CompletableFuture.supplyAsync(
+                () -> findCartOrThrow(cartId), checkoutLookupExecutor);
+        CompletableFuture<User> userFuture = CompletableFuture.supplyAsync(
+                () -> findUserOrThrow(userId), checkoutLookupExecutor);
+        CompletableFuture<Address> addressFuture = CompletableFuture.supplyAsync(
+                () -> findAddressOrThrow(addressId), checkoutLookupExecutor);
+        // Todos los productos del carrito en una sola llamada al servicio de productos
+        CompletableFuture<Map<Integer, Product>> productsFuture = cartFuture.thenApplyAsync(
+                cart -> findProductsOrThrow(cart.getItems().stream()
+                        .map(CartItem::getProductId)
+                        .collect(Collectors.toSet())),
+                checkoutLookupExecutor);
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(userFuture, addressFuture, productsFuture);
+        try {
+            all.get(checkoutLookupTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            all.cancel(true);
+            throw new RuntimeException("Tiempo de espera agotado al validar el checkout ("
+                    + checkoutLookupTimeoutMs + " ms).", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Validación del checkout interrumpida.", e);
+        } catch (ExecutionException e) {
+            // Propagar la excepción original (p. ej. EntityNotFoundException -> 404)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Error al validar el checkout: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        return new CheckoutData(cartFuture.join(), userFuture.join(), productsFuture.join());
+    }
+
+    private String describeFailedReservation(StockReservationResponse reservation, Map<Integer, Product> products) {
+        return "Stock insuficiente para el producto: " + reservation.getLines().stream()
+                .filter(line -> line.getStatus() != StockReservationStatus.RESERVED)
+                .map(line -> products.containsKey(line.getProductId())
+                        ? products.get(line.getProductId()).getName()
+                        : "#" + line.getProductId())
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Busca varios productos con una sola llamada y lanza EntityNotFoundException si falta alguno.
+     */
+    private Map<Integer, Product> findProductsOrThrow(Set<Integer> productIds) {
+        Map<Integer, Product> products = productClient.findAllByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (Integer productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new EntityNotFoundException("Product not found with id: " + productId);
+            }
+        }
+        return products;
+    }
+
     public Shipment findShipmentOrThrow(Integer shipmentId) {
         return shipmentClient.findById(shipmentId)
                 .orElseThrow(() -> new EntityNotFoundException("Shipment not found with id: " + shipmentId));
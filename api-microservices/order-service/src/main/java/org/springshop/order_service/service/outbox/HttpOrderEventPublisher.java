@@ -0,0 +1,41 @@
+package org.springshop.order_service.service.outbox;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springshop.order_service.dto.event.OrderEvent;
+
+/**
+ * Entrega los lotes por HTTP al endpoint de eventos de cada servicio suscriptor
+ * (order.events.subscribers). Los suscriptores deben ser idempotentes: un lote puede reentregarse.
+ */
+@Component
+public class HttpOrderEventPublisher implements OrderEventPublisher {
+
+    private final RestTemplate restTemplate;
+    private final List<String> subscriberUrls;
+
+    public HttpOrderEventPublisher(RestTemplateBuilder builder,
+            @Value("${order.events.subscribers:}") List<String> subscriberUrls) {
+        this.restTemplate = builder.build();
+        this.subscriberUrls = List.copyOf(subscriberUrls);
+    }
+
+    @Override
+    public List<String> subscribers() {
+        return subscriberUrls;
+    }
+
+    @Override
+    public void publish(String subscriber, List<OrderEvent> events) {
+        try {
+            restTemplate.postForEntity(subscriber, events, Void.class);
+        } catch (RestClientException ex) {
+            throw new RuntimeException("Error al publicar eventos de orden en " + subscriber + ": " + ex.getMessage(), ex);
+        }
+    }
+}
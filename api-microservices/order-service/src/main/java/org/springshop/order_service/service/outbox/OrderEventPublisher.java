@@ -0,0 +1,19 @@
+package org.springshop.order_service.service.outbox;
+
+import java.util.List;
+
+import org.springshop.order_service.dto.event.OrderEvent;
+
+/**
+ * Transporte con el que el relay entrega los eventos de orden. Cada evento se registra una vez por
+ * suscriptor; si la entrega a un suscriptor falla debe lanzar una excepción y solo sus entregas se reintentan.
+ */
+public interface OrderEventPublisher {
+
+    /**
+     * Suscriptores a los que se entrega cada evento nuevo.
+     */
+    List<String> subscribers();
+
+    void publish(String subscriber, List<OrderEvent> events);
+}
@@ -0,0 +1,70 @@
+package org.springshop.order_service.service.outbox;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springshop.order_service.dto.event.OrderEvent;
+import org.springshop.order_service.model.outbox.OrderOutboxEvent;
+
+/**
+ * Drena periódicamente el outbox de órdenes. Cada lote se reclama en una transacción corta y se publica
+ * fuera de ella, agrupado por suscriptor: un suscriptor caído o un payload ilegible no frenan al resto.
+ */
+@Component
+public class OrderOutboxRelay {
+
+    private final OrderOutboxService outboxService;
+    private final OrderEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public OrderOutboxRelay(OrderOutboxService outboxService, OrderEventPublisher eventPublisher,
+            @Value("${order.events.relay.batch-size:50}") int batchSize) {
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${order.events.relay.interval-ms:1000}")
+    public void relayPendingEvents() {
+        int claimed;
+        do {
+            List<OrderOutboxEvent> due = outboxService.claimDueEvents(batchSize);
+            claimed = due.size();
+
+            Map<String, List<OrderOutboxEvent>> bySubscriber = new LinkedHashMap<>();
+            due.forEach(outboxEvent -> bySubscriber
+                    .computeIfAbsent(outboxEvent.getSubscriber(), subscriber -> new ArrayList<>())
+                    .add(outboxEvent));
+            bySubscriber.forEach(this::deliver);
+        } while (claimed == batchSize);
+    }
+
+    private void deliver(String subscriber, List<OrderOutboxEvent> deliveries) {
+        List<OrderEvent> events = new ArrayList<>(deliveries.size());
+        List<Long> ids = new ArrayList<>(deliveries.size());
+        for (OrderOutboxEvent outboxEvent : deliveries) {
+            try {
+                events.add(outboxService.toEvent(outboxEvent));
+                ids.add(outboxEvent.getId());
+            } catch (IllegalStateException e) {
+                outboxService.markDead(outboxEvent.getId(), e);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            eventPublisher.publish(subscriber, events);
+        } catch (RuntimeException e) {
+            outboxService.markFailed(ids, e);
+            return;
+        }
+        outboxService.markPublished(ids);
+    }
+}
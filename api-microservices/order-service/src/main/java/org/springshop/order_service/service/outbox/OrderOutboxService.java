@@ -0,0 +1,180 @@
+package org.springshop.order_service.service.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.order_service.dto.event.OrderEvent;
+import org.springshop.order_service.dto.order.OrderUpdateStatus;
+import org.springshop.order_service.model.order.Order;
+import org.springshop.order_service.model.outbox.OrderEventType;
+import org.springshop.order_service.model.outbox.OrderOutboxEvent;
+import org.springshop.order_service.model.outbox.OrderOutboxStatus;
+import org.springshop.order_service.repository.outbox.OrderOutboxRepository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Outbox transaccional de eventos de orden: los eventos se escriben en la misma transacción que el cambio
+ * de la orden, una entrega por suscriptor. El relay las reclama en transacciones cortas, hace las llamadas
+ * fuera de ellas y registra el resultado con reintentos, backoff y DEAD al agotar los intentos.
+ */
+@Service
+@Transactional
+public class OrderOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderOutboxRepository outboxRepository;
+    private final OrderEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int maxAttempts;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
+    private final long leaseSeconds;
+
+    public OrderOutboxService(OrderOutboxRepository outboxRepository, OrderEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${order.events.relay.max-attempts:10}") int maxAttempts,
+            @Value("${order.events.relay.backoff-initial-ms:2000}") long backoffInitialMs,
+            @Value("${order.events.relay.backoff-max-ms:600000}") long backoffMaxMs,
+            @Value("${order.events.relay.lease-seconds:60}") long leaseSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitialMs = backoffInitialMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Registra un evento de la orden para cada suscriptor. MANDATORY: solo tiene sentido dentro de la
+     * transacción que cambia la orden.
+     * @param payment Datos del pago para ORDER_PAID (puede ser null).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Order order, OrderEventType type, OrderUpdateStatus payment) {
+        OrderEvent event = new OrderEvent();
+        event.setType(type);
+        event.setOrderId(order.getId());
+        event.setUserId(order.getUserId());
+        event.setAddressId(order.getAddressId());
+        event.setTotalAmount(order.getTotalAmount());
+        event.setOccurredAt(LocalDateTime.now());
+        if (payment != null) {
+            event.setTransactionId(payment.getTransactionId());
+            event.setAmount(payment.getAmount());
+            event.setCurrency(payment.getCurrency());
+            event.setPaymentMethod(payment.getPaymentMethod());
+        }
+
+        String payload = toJson(event);
+        for (String subscriber : eventPublisher.subscribers()) {
+            OrderOutboxEvent outboxEvent = new OrderOutboxEvent();
+            outboxEvent.setOrderId(order.getId());
+            outboxEvent.setEventType(type);
+            outboxEvent.setSubscriber(subscriber);
+            outboxEvent.setPayload(payload);
+            outboxEvent.setCreatedAt(event.getOccurredAt());
+            outboxEvent.setNextAttemptAt(event.getOccurredAt());
+            outboxRepository.save(outboxEvent);
+        }
+    }
+
+    /**
+     * Reclama un lote de entregas listas y las aparta hasta que venza el lease, para que otro relay
+     * no las tome mientras se publican. El bloqueo de filas termina con esta transacción.
+     */
+    public List<OrderOutboxEvent> claimDueEvents(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderOutboxEvent> due = outboxRepository.lockDueEvents(now, limit);
+        due.forEach(outboxEvent -> outboxEvent.setNextAttemptAt(now.plusSeconds(leaseSeconds)));
+        return due;
+    }
+
+    public void markPublished(List<Long> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        for (OrderOutboxEvent outboxEvent : outboxRepository.findAllById(ids)) {
+            outboxEvent.setStatus(OrderOutboxStatus.PUBLISHED);
+            outboxEvent.setPublishedAt(now);
+            outboxEvent.setLastError(null);
+        }
+    }
+
+    /**
+     * Registra un intento fallido: cada entrega se reprograma con backoff exponencial o pasa a DEAD
+     * al agotar los intentos.
+     */
+    public void markFailed(List<Long> ids, Exception error) {
+        String message = truncate(String.valueOf(error.getMessage()));
+        for (OrderOutboxEvent outboxEvent : outboxRepository.findAllById(ids)) {
+            int attempts = outboxEvent.getAttempts() + 1;
+            outboxEvent.setAttempts(attempts);
+            outboxEvent.setLastError(message);
+
+            if (attempts >= maxAttempts) {
+                outboxEvent.setStatus(OrderOutboxStatus.DEAD);
+                System.err.println("Evento de orden " + outboxEvent.getId() + " para " + outboxEvent.getSubscriber()
+                        + " enviado a DEAD tras " + attempts + " intentos: " + error.getMessage());
+            } else {
+                outboxEvent.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000));
+            }
+        }
+    }
+
+    /**
+     * Envía a DEAD una entrega que no se puede reintentar (por ejemplo, un payload ilegible).
+     */
+    public void markDead(Long id, Exception error) {
+        outboxRepository.findById(id).ifPresent(outboxEvent -> {
+            outboxEvent.setStatus(OrderOutboxStatus.DEAD);
+            outboxEvent.setLastError(truncate(String.valueOf(error.getMessage())));
+            System.err.println("Evento de orden " + id + " para " + outboxEvent.getSubscriber()
+                    + " enviado a DEAD: " + error.getMessage());
+        });
+    }
+
+    /**
+     * Reconstruye el evento de una entrega. Lanza IllegalStateException si el payload es ilegible.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public OrderEvent toEvent(OrderOutboxEvent outboxEvent) {
+        OrderEvent event = fromJson(outboxEvent.getPayload());
+        event.setEventId(outboxEvent.getId());
+        return event;
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    // Backoff exponencial con tope y un poco de jitter para no reintentar en bloque
+    private long backoffMs(int attempts) {
+        long delay = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 20));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento de la orden " + event.getOrderId(), e);
+        }
+    }
+
+    private OrderEvent fromJson(String payload) {
+        try {
+            return objectMapper.readValue(payload, OrderEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Evento de orden ilegible en el outbox", e);
+        }
+    }
+}
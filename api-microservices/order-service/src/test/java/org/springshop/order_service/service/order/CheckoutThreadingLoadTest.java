@@ -0,0 +1,124 @@
+package org.springshop.order_service.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Carga de 2000 checkouts concurrentes con hilos de petición de plataforma (pool de 200, el máximo
+ * por defecto de Tomcat) frente a hilos virtuales (spring.threads.virtual.enabled=true).
+ * <p>
+ * Cada checkout reproduce la forma de OrderService.checkout: cuatro consultas en paralelo en el
+ * executor de lookups (carrito, usuario, dirección, productos), la reserva de stock y el cobro,
+ * con la latencia de los servicios remotos simulada. Imprime throughput, hilos de plataforma y
+ * heap de cada modo, y comprueba que en modo virtual ningún hilo queda anclado a su carrier.
+ */
+class CheckoutThreadingLoadTest {
+
+    private static final int CHECKOUTS = 2000;
+    private static final int PLATFORM_REQUEST_THREADS = 200;
+    private static final long LOOKUP_LATENCY_MS = 50;
+    private static final long RESERVE_LATENCY_MS = 20;
+    private static final long PAYMENT_LATENCY_MS = 50;
+
+    @Test
+    void virtualThreadsServeConcurrentCheckoutsFasterWithoutPinning() throws Exception {
+        Run platform = run("plataforma", Executors.newFixedThreadPool(PLATFORM_REQUEST_THREADS));
+
+        AtomicInteger pinned = new AtomicInteger();
+        Run virtual;
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+            virtual = run("virtual", Executors.newVirtualThreadPerTaskExecutor());
+            recording.stop();
+        }
+
+        assertThat(platform.completed()).isEqualTo(CHECKOUTS);
+        assertThat(virtual.completed()).isEqualTo(CHECKOUTS);
+        // Con 200 hilos los checkouts van en tandas; con hilos virtuales corren todos a la vez
+        assertThat(virtual.elapsedMillis()).isLessThan(platform.elapsedMillis());
+        assertThat(pinned.get()).isZero();
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private Run run(String label, ExecutorService requestExecutor) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(CHECKOUTS);
+        long elapsedNanos;
+        // Igual que ExecutorConfig.checkoutLookupExecutor
+        try (ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+                requestExecutor) {
+            for (int i = 0; i < CHECKOUTS; i++) {
+                futures.add(requestExecutor.submit(() -> {
+                    start.await();
+                    checkout(lookupExecutor);
+                    completed.incrementAndGet();
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            elapsedNanos = System.nanoTime() - startedAt;
+        }
+
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        System.out.printf("%s: %d checkouts en %d ms (%.0f checkouts/s), pico de %d hilos de plataforma, heap %+d KB%n",
+                label, CHECKOUTS, elapsedMillis, CHECKOUTS / (elapsedNanos / 1_000_000_000.0),
+                threads.getPeakThreadCount(), (heapAfter - heapBefore) / 1024);
+        return new Run(completed.get(), elapsedMillis);
+    }
+
+    private static void checkout(ExecutorService lookupExecutor) {
+        CompletableFuture<Void> lookups = CompletableFuture.allOf(
+                CompletableFuture.runAsync(() -> remoteCall(LOOKUP_LATENCY_MS), lookupExecutor),
+                CompletableFuture.runAsync(() -> remoteCall(LOOKUP_LATENCY_MS), lookupExecutor),
+                CompletableFuture.runAsync(() -> remoteCall(LOOKUP_LATENCY_MS), lookupExecutor),
+                CompletableFuture.runAsync(() -> remoteCall(LOOKUP_LATENCY_MS), lookupExecutor));
+        lookups.join();
+        remoteCall(RESERVE_LATENCY_MS);
+        remoteCall(PAYMENT_LATENCY_MS);
+    }
+
+    // Una llamada HTTP bloqueante al servicio remoto
+    private static void remoteCall(long latencyMs) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Run(int completed, long elapsedMillis) {
+    }
+}
@@ -0,0 +1,123 @@
+package org.springshop.order_service.service.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springshop.order_service.client.AddressClient;
+import org.springshop.order_service.client.CartClient;
+import org.springshop.order_service.client.ProductClient;
+import org.springshop.order_service.client.ShipmentClient;
+import org.springshop.order_service.client.UserClient;
+import org.springshop.order_service.dto.order.CursorPage;
+import org.springshop.order_service.dto.order.OrderResponseDto;
+import org.springshop.order_service.model.order.Order;
+import org.springshop.order_service.model.order.OrderItem;
+import org.springshop.order_service.model.order.OrderStatus;
+import org.springshop.order_service.service.outbox.OrderOutboxService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Una página de órdenes, con sus ítems, debe costar siempre dos sentencias: IDs + fetch join
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(OrderService.class)
+class OrderServicePageTest {
+
+    private static final int USER_ID = 7;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private CartClient cartClient;
+    @MockitoBean
+    private OrderItemService orderItemService;
+    @MockitoBean
+    private UserClient userClient;
+    @MockitoBean
+    private AddressClient addressClient;
+    @MockitoBean
+    private ProductClient productClient;
+    @MockitoBean
+    private ShipmentClient shipmentClient;
+    @MockitoBean
+    private OrderOutboxService outboxService;
+    @MockitoBean
+    private ExecutorService checkoutLookupExecutor;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            persistOrder(USER_ID, 3);
+            persistOrder(USER_ID + 1, 2);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void userPageLoadsOrdersAndItemsInTwoStatements() {
+        CursorPage<OrderResponseDto> page = orderService.getOrderPage(USER_ID, null, 3);
+
+        assertThat(page.getItems()).hasSize(3)
+                .allSatisfy(order -> {
+                    assertThat(order.getUserId()).isEqualTo(USER_ID);
+                    assertThat(order.getItems()).hasSize(3);
+                });
+        assertThat(page.getNextCursor()).isEqualTo(page.getItems().get(2).getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void lastPageFromCursorLoadsInTwoStatements() {
+        CursorPage<OrderResponseDto> first = orderService.getOrderPage(null, null, 6);
+        statistics.clear();
+
+        CursorPage<OrderResponseDto> last = orderService.getOrderPage(null, first.getNextCursor(), 6);
+
+        assertThat(last.getItems()).hasSize(4);
+        assertThat(last.getNextCursor()).isNull();
+        assertThat(last.getItems()).extracting(OrderResponseDto::getId)
+                .allMatch(id -> id < first.getNextCursor());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private void persistOrder(int userId, int itemCount) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setAddressId(1);
+        order.setStatus(OrderStatus.PAID);
+        order.setTotalAmount(10.0 * itemCount);
+        entityManager.persist(order);
+
+        for (int i = 0; i < itemCount; i++) {
+            OrderItem item = new OrderItem();
+            item.setOrder(order);
+            item.setProductId(i + 1);
+            item.setPrice(10.0);
+            item.setQuantity(1);
+            entityManager.persist(item);
+        }
+    }
+}
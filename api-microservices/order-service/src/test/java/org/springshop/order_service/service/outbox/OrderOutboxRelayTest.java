@@ -0,0 +1,113 @@
+package org.springshop.order_service.service.outbox;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springshop.order_service.dto.event.OrderEvent;
+import org.springshop.order_service.model.outbox.OrderOutboxEvent;
+
+// El relay publica cada lote agrupado por suscriptor: un fallo solo afecta a las entregas de ese suscriptor
+class OrderOutboxRelayTest {
+
+    private static final String SHIPMENTS = "http://shipment/events";
+    private static final String PAYMENTS = "http://payment/events";
+
+    private OrderOutboxService outboxService;
+    private OrderEventPublisher eventPublisher;
+    private OrderOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = mock(OrderOutboxService.class);
+        eventPublisher = mock(OrderEventPublisher.class);
+        relay = new OrderOutboxRelay(outboxService, eventPublisher, 50);
+        when(outboxService.toEvent(any())).thenAnswer(invocation -> eventOf(invocation.getArgument(0)));
+    }
+
+    @Test
+    void publishesOneBatchPerSubscriber() {
+        OrderOutboxEvent first = delivery(1L, SHIPMENTS);
+        OrderOutboxEvent second = delivery(2L, PAYMENTS);
+        OrderOutboxEvent third = delivery(3L, SHIPMENTS);
+        when(outboxService.claimDueEvents(50)).thenReturn(List.of(first, second, third));
+
+        relay.relayPendingEvents();
+
+        verify(eventPublisher).publish(SHIPMENTS, List.of(eventOf(first), eventOf(third)));
+        verify(eventPublisher).publish(PAYMENTS, List.of(eventOf(second)));
+        verify(outboxService).markPublished(List.of(1L, 3L));
+        verify(outboxService).markPublished(List.of(2L));
+        verify(outboxService, never()).markFailed(anyList(), any());
+    }
+
+    @Test
+    void failingSubscriberIsRescheduledWithoutHoldingBackTheOthers() {
+        when(outboxService.claimDueEvents(50)).thenReturn(List.of(delivery(1L, SHIPMENTS), delivery(2L, PAYMENTS)));
+        RuntimeException down = new RuntimeException("payment-service caído");
+        doThrow(down).when(eventPublisher).publish(eq(PAYMENTS), anyList());
+
+        relay.relayPendingEvents();
+
+        verify(outboxService).markFailed(List.of(2L), down);
+        verify(outboxService).markPublished(List.of(1L));
+        verify(outboxService, never()).markPublished(List.of(2L));
+    }
+
+    @Test
+    void unreadablePayloadIsDeadLetteredAndTheRestIsPublished() {
+        OrderOutboxEvent broken = delivery(1L, SHIPMENTS);
+        OrderOutboxEvent readable = delivery(2L, SHIPMENTS);
+        when(outboxService.claimDueEvents(50)).thenReturn(List.of(broken, readable));
+        IllegalStateException unreadable = new IllegalStateException("Evento de orden ilegible en el outbox");
+        when(outboxService.toEvent(broken)).thenThrow(unreadable);
+
+        relay.relayPendingEvents();
+
+        verify(outboxService).markDead(1L, unreadable);
+        verify(eventPublisher).publish(SHIPMENTS, List.of(eventOf(readable)));
+        verify(outboxService).markPublished(List.of(2L));
+    }
+
+    @Test
+    void keepsDrainingWhileBatchesComeBackFull() {
+        OrderOutboxRelay smallBatches = new OrderOutboxRelay(outboxService, eventPublisher, 2);
+        when(outboxService.claimDueEvents(2))
+                .thenReturn(List.of(delivery(1L, SHIPMENTS), delivery(2L, SHIPMENTS)))
+                .thenReturn(List.of(delivery(3L, SHIPMENTS)));
+
+        smallBatches.relayPendingEvents();
+
+        verify(outboxService, times(2)).claimDueEvents(2);
+        verify(eventPublisher, times(2)).publish(anyString(), anyList());
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static OrderOutboxEvent delivery(Long id, String subscriber) {
+        OrderOutboxEvent outboxEvent = new OrderOutboxEvent();
+        outboxEvent.setId(id);
+        outboxEvent.setOrderId(id.intValue());
+        outboxEvent.setSubscriber(subscriber);
+        outboxEvent.setPayload("{}");
+        return outboxEvent;
+    }
+
+    private static OrderEvent eventOf(OrderOutboxEvent outboxEvent) {
+        OrderEvent event = new OrderEvent();
+        event.setEventId(outboxEvent.getId());
+        event.setOrderId(outboxEvent.getOrderId());
+        return event;
+    }
+}
@@ -0,0 +1,130 @@
+package org.springshop.order_service.service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springshop.order_service.dto.event.OrderEvent;
+import org.springshop.order_service.model.order.Order;
+import org.springshop.order_service.model.outbox.OrderEventType;
+import org.springshop.order_service.model.outbox.OrderOutboxEvent;
+import org.springshop.order_service.model.outbox.OrderOutboxStatus;
+import org.springshop.order_service.repository.outbox.OrderOutboxRepository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Una entrega por suscriptor, reintentos con backoff y DEAD al agotar los intentos
+class OrderOutboxServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_INITIAL_MS = 2000;
+
+    private OrderOutboxRepository outboxRepository;
+    private OrderEventPublisher eventPublisher;
+    private OrderOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxRepository = mock(OrderOutboxRepository.class);
+        eventPublisher = mock(OrderEventPublisher.class);
+        outboxService = new OrderOutboxService(outboxRepository, eventPublisher,
+                new ObjectMapper().findAndRegisterModules(), MAX_ATTEMPTS, BACKOFF_INITIAL_MS, 600000, 60);
+    }
+
+    @Test
+    void recordWritesOneDeliveryPerSubscriber() {
+        when(eventPublisher.subscribers()).thenReturn(List.of("http://shipment/events", "http://payment/events"));
+        Order order = new Order();
+        order.setId(42);
+        order.setUserId(7);
+
+        outboxService.record(order, OrderEventType.ORDER_PAID, null);
+
+        ArgumentCaptor<OrderOutboxEvent> saved = ArgumentCaptor.forClass(OrderOutboxEvent.class);
+        verify(outboxRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(OrderOutboxEvent::getSubscriber)
+                .containsExactly("http://shipment/events", "http://payment/events");
+        assertThat(saved.getAllValues()).allSatisfy(delivery -> {
+            assertThat(delivery.getOrderId()).isEqualTo(42);
+            assertThat(delivery.getStatus()).isEqualTo(OrderOutboxStatus.PENDING);
+            assertThat(delivery.getPayload()).isEqualTo(saved.getAllValues().get(0).getPayload());
+        });
+        OrderEvent event = outboxService.toEvent(saved.getAllValues().get(0));
+        assertThat(event.getOrderId()).isEqualTo(42);
+        assertThat(event.getType()).isEqualTo(OrderEventType.ORDER_PAID);
+    }
+
+    @Test
+    void failedDeliveryIsRescheduledWithBackoff() {
+        OrderOutboxEvent delivery = delivery(1L, 0);
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(delivery));
+        LocalDateTime before = LocalDateTime.now();
+
+        outboxService.markFailed(List.of(1L), new RuntimeException("timeout"));
+
+        assertThat(delivery.getStatus()).isEqualTo(OrderOutboxStatus.PENDING);
+        assertThat(delivery.getAttempts()).isEqualTo(1);
+        assertThat(delivery.getLastError()).isEqualTo("timeout");
+        assertThat(delivery.getNextAttemptAt()).isAfterOrEqualTo(before.plusNanos(BACKOFF_INITIAL_MS * 1_000_000));
+    }
+
+    @Test
+    void deliveryIsDeadLetteredAfterTheLastAttempt() {
+        OrderOutboxEvent delivery = delivery(1L, MAX_ATTEMPTS - 1);
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(delivery));
+
+        outboxService.markFailed(List.of(1L), new RuntimeException("timeout"));
+
+        assertThat(delivery.getStatus()).isEqualTo(OrderOutboxStatus.DEAD);
+        assertThat(delivery.getAttempts()).isEqualTo(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void unreadablePayloadFailsToEventAndCanBeDeadLettered() {
+        OrderOutboxEvent delivery = delivery(1L, 0);
+        delivery.setPayload("no es json");
+        when(outboxRepository.findById(1L)).thenReturn(Optional.of(delivery));
+
+        assertThatThrownBy(() -> outboxService.toEvent(delivery)).isInstanceOf(IllegalStateException.class);
+        outboxService.markDead(1L, new IllegalStateException("Evento de orden ilegible en el outbox"));
+
+        assertThat(delivery.getStatus()).isEqualTo(OrderOutboxStatus.DEAD);
+        assertThat(delivery.getAttempts()).isZero();
+    }
+
+    @Test
+    void publishedDeliveryKeepsNoError() {
+        OrderOutboxEvent delivery = delivery(1L, 2);
+        delivery.setLastError("timeout");
+        when(outboxRepository.findAllById(List.of(1L))).thenReturn(List.of(delivery));
+
+        outboxService.markPublished(List.of(1L));
+
+        assertThat(delivery.getStatus()).isEqualTo(OrderOutboxStatus.PUBLISHED);
+        assertThat(delivery.getPublishedAt()).isNotNull();
+        assertThat(delivery.getLastError()).isNull();
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static OrderOutboxEvent delivery(Long id, int attempts) {
+        OrderOutboxEvent delivery = new OrderOutboxEvent();
+        delivery.setId(id);
+        delivery.setOrderId(42);
+        delivery.setSubscriber("http://payment/events");
+        delivery.setPayload("{}");
+        delivery.setAttempts(attempts);
+        delivery.setNextAttemptAt(LocalDateTime.now());
+        return delivery;
+    }
+}
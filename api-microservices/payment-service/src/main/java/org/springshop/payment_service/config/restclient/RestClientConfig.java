@@ -0,0 +1,89 @@
+package org.springshop.payment_service.config.restclient;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Cliente HTTP compartido por todos los *Client del servicio: pool de conexiones
+ * (Apache HttpClient 5) con límites por host, timeouts y keep-alive acotados, para
+ * que un servicio lento no retenga hilos de petición indefinidamente.
+ */
+@Configuration
+public class RestClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpConnectionManager(
+            @Value("${http.client.pool.max-total:100}") int maxTotal,
+            @Value("${http.client.pool.max-per-route:20}") int maxPerRoute,
+            @Value("${http.client.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${http.client.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${http.client.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        // Nunca reutilizar una conexión más allá del keep-alive
+                        .setTimeToLive(TimeValue.ofSeconds(keepAliveSeconds))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+            @Value("${http.client.pool.acquire-timeout-ms:1000}") long acquireTimeoutMs,
+            @Value("${http.client.response-timeout-ms:5000}") long responseTimeoutMs,
+            @Value("${http.client.keep-alive-seconds:30}") long keepAliveSeconds) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Espera máxima por una conexión libre del pool
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                // HTTP/1.1 keep-alive: respeta el valor del servidor, con un máximo propio
+                .setKeepAliveStrategy((response, context) -> {
+                    TimeValue serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return TimeValue.ofSeconds(Math.min(serverKeepAlive.toSeconds(), keepAliveSeconds));
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAliveSeconds, TimeUnit.SECONDS))
+                .build();
+    }
+
+    /**
+     * Se aplica a todo RestTemplate creado con RestTemplateBuilder.
+     */
+    @Bean
+    public RestTemplateCustomizer pooledRequestFactoryCustomizer(CloseableHttpClient httpClient) {
+        return restTemplate -> restTemplate.setRequestFactory(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    /**
+     * Métricas del pool (conexiones disponibles, en uso y peticiones esperando).
+     */
+    @Bean
+    public MeterBinder httpConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "payment-service");
+    }
+}
@@ -0,0 +1,24 @@
+package org.springshop.payment_service.dto.event;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento de orden publicado por el outbox del servicio de órdenes (puede reentregarse)
+@Data
+@NoArgsConstructor
+public class OrderEvent {
+    private Long eventId;
+    private OrderEventType type;
+    private Integer orderId;
+    private Integer userId;
+    private Integer addressId;
+    private Double totalAmount;
+    private LocalDateTime occurredAt;
+    // Solo en ORDER_PAID
+    private String transactionId;
+    private Double amount;
+    private String currency;
+    private String paymentMethod;
+}
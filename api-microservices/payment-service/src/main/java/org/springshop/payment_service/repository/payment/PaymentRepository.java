@@ -8,4 +8,5 @@ import java.util.List;
 public interface PaymentRepository extends JpaRepository<Payment, Integer> {
     
     List<Payment> findAllByOrderId(Integer orderId);
+    boolean existsByTransactionId(String transactionId);
 }
\ No newline at end of file
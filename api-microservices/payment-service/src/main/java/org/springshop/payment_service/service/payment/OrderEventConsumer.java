@@ -0,0 +1,61 @@
+package org.springshop.payment_service.service.payment;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.payment_service.dto.event.OrderEvent;
+import org.springshop.payment_service.model.payment.Payment;
+import org.springshop.payment_service.model.payment.PaymentStatus;
+import org.springshop.payment_service.repository.payment.PaymentRepository;
+
+/**
+ * Consume los eventos de orden del outbox: registra el pago de las órdenes pagadas y marca como
+ * fallidos los pagos pendientes de las órdenes fallidas. Idempotente ante reentregas.
+ */
+@Service
+public class OrderEventConsumer {
+
+    private final PaymentRepository paymentRepository;
+
+    public OrderEventConsumer(PaymentRepository paymentRepository) {
+        this.paymentRepository = paymentRepository;
+    }
+
+    @Transactional
+    public void consume(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            switch (event.getType()) {
+                case ORDER_PAID -> recordPaymentIfAbsent(event);
+                case ORDER_FAILED -> failPendingPayments(event.getOrderId());
+            }
+        }
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private void recordPaymentIfAbsent(OrderEvent event) {
+        if (event.getTransactionId() == null) {
+            System.err.println("Evento ORDER_PAID sin datos de pago para la orden: " + event.getOrderId());
+            return;
+        }
+        // El transactionId de la pasarela identifica el pago: una reentrega no lo duplica
+        if (paymentRepository.existsByTransactionId(event.getTransactionId())) {
+            return;
+        }
+        Payment payment = new Payment();
+        payment.setOrderId(event.getOrderId());
+        payment.setTransactionId(event.getTransactionId());
+        payment.setAmount(event.getAmount() != null ? event.getAmount() : event.getTotalAmount());
+        payment.setCurrency(event.getCurrency());
+        payment.setMethod(event.getPaymentMethod());
+        payment.setStatus(PaymentStatus.SUCCESS);
+        paymentRepository.save(payment);
+    }
+
+    private void failPendingPayments(Integer orderId) {
+        paymentRepository.findAllByOrderId(orderId).stream()
+                .filter(payment -> payment.getStatus() == PaymentStatus.PENDING)
+                .forEach(payment -> payment.setStatus(PaymentStatus.FAILED));
+    }
+}
@@ -20,6 +20,7 @@ public class DevWebConfig {
                         .allowedOrigins("http://localhost:5173", "http://localhost:8080")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Next-Cursor")
                         .allowCredentials(true);
             }
         };
@@ -0,0 +1,23 @@
+package org.springshop.product_service.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class HttpCacheConfig {
+
+    /**
+     * Añade ETag a las respuestas del catálogo y responde 304 cuando coincide con If-None-Match.
+     * El gateway reutiliza ese ETag en su caché de respuestas.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/api/v2/products/*");
+        registration.setName("etagFilter");
+        return registration;
+    }
+}
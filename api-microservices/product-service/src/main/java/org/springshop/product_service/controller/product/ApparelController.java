@@ -2,6 +2,7 @@ package org.springshop.product_service.controller.product;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.apparel.ApparelRequest;
 import org.springshop.product_service.dto.product.apparel.ApparelResponse;
 import org.springshop.product_service.service.product.ApparelService;
@@ -33,12 +34,9 @@ public class ApparelController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ApparelResponse>> getAllOrFilteredApparels(
-            @RequestParam(required = false) Integer categoryId) {
-        if (categoryId != null) {
-            return ResponseEntity.ok(apparelService.getApparelsByCategoryId(categoryId));
-        }
-        return ResponseEntity.ok(apparelService.getAllApparels());
+    public ResponseEntity<List<ApparelResponse>> getAllOrFilteredApparels(ProductCatalogFilter filter) {
+
+        return apparelService.getApparelPage(filter).toResponse();
     }
 
     @GetMapping("/{id:\\d+}")
@@ -67,4 +65,4 @@ public class ApparelController {
         return maybeResponse.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
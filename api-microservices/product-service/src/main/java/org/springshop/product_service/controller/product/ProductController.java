@@ -1,12 +1,18 @@
 package org.springshop.product_service.controller.product;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.ProductResponse;
 import org.springshop.product_service.dto.product.ProductUpdateStockRequest;
 import org.springshop.product_service.dto.product.ProductRequest;
+import org.springshop.product_service.dto.product.stock.StockReservationRequest;
+import org.springshop.product_service.dto.product.stock.StockReservationResponse;
 import org.springshop.product_service.service.product.ProductService;
 
+import jakarta.validation.Valid;
+
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -30,10 +36,19 @@ public class ProductController {
         return ResponseEntity.created(location).body(response);
     }
 
+    /**
+     * Catálogo paginado por cursor: ?size=&cursor=&categoryId=&minPrice=&maxPrice=&inStock=
+     */
     @GetMapping
-    public ResponseEntity<List<ProductResponse>> getAllProducts() {
+    public ResponseEntity<List<ProductResponse>> getAllProducts(ProductCatalogFilter filter) {
+
+        return productService.getProductPage(filter).toResponse();
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponse>> getProductsByIds(@RequestBody List<Integer> ids) {
 
-        return ResponseEntity.ok(productService.getAllProducts());
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     @GetMapping("/{id:\\d+}")
@@ -73,8 +88,32 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/stock/reservations")
+    public ResponseEntity<StockReservationResponse> reserveStock(
+            @Valid @RequestBody StockReservationRequest request) {
+
+        StockReservationResponse response = productService.reserveStock(request);
+
+        // 409 Conflict si alguna línea no se pudo reservar (ninguna queda aplicada)
+        return response.isReserved()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @PostMapping("/stock/reservations/{orderId:\\d+}/confirm")
+    public ResponseEntity<Void> confirmReservation(@PathVariable Integer orderId) {
+        productService.confirmReservation(orderId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/stock/reservations/{orderId:\\d+}/release")
+    public ResponseEntity<Void> releaseReservation(@PathVariable Integer orderId) {
+        productService.releaseReservation(orderId);
+        return ResponseEntity.noContent().build();
+    }
+
     private <T> ResponseEntity<T> wrapOrNotFound(Optional<T> maybeResponse) {
         return maybeResponse.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package org.springshop.product_service.controller.product;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.supplement.SupplementRequest;
 import org.springshop.product_service.dto.product.supplement.SupplementResponse;
 import org.springshop.product_service.service.product.SupplementService;
@@ -34,14 +35,9 @@ public class SupplementController {
     }
 
     @GetMapping
-    public ResponseEntity<List<SupplementResponse>> getAllOrFilteredSupplements(
-            @RequestParam(required = false) Integer categoryId) {
+    public ResponseEntity<List<SupplementResponse>> getAllOrFilteredSupplements(ProductCatalogFilter filter) {
 
-        if (categoryId != null) {
-            return ResponseEntity.ok(supplementService.getSupplementsByCategoryId(categoryId));
-        }
-
-        return ResponseEntity.ok(supplementService.getAllSupplements());
+        return supplementService.getSupplementPage(filter).toResponse();
     }
 
     @GetMapping("/{id:\\d+}")
@@ -73,4 +69,4 @@ public class SupplementController {
         return maybeResponse.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package org.springshop.product_service.controller.product;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.workoutaccessory.WorkoutAccessoryRequest;
 import org.springshop.product_service.dto.product.workoutaccessory.WorkoutAccessoryResponse;
 import org.springshop.product_service.service.product.WorkoutAccessoryService;
@@ -34,15 +35,9 @@ public class WorkoutAccessoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<WorkoutAccessoryResponse>> getAllOrFilteredWorkoutAccessories(
-        @RequestParam(required = false) Integer categoryId
-    ) {
+    public ResponseEntity<List<WorkoutAccessoryResponse>> getAllOrFilteredWorkoutAccessories(ProductCatalogFilter filter) {
 
-        if (categoryId != null) {
-            return ResponseEntity.ok(accessoryService.getWorkoutAccessoriesByCategoryId(categoryId));
-        }
-
-        return ResponseEntity.ok(accessoryService.getAllWorkoutAccessories());
+        return accessoryService.getWorkoutAccessoryPage(filter).toResponse();
     }
 
 
@@ -73,4 +68,4 @@ public class WorkoutAccessoryController {
         return maybeResponse.map(ResponseEntity::ok)
                             .orElse(ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package org.springshop.product_service.dto.product;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página de resultados por cursor: nextCursor es null en la última página
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private Integer nextCursor;
+
+    /**
+     * Construye la página a partir de las filas leídas con una de más (size + 1):
+     * si la fila extra existe hay página siguiente y el cursor es el ID del último ítem devuelto.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, T> mapper, Function<E, Integer> idOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> pageRows = hasNext ? rows.subList(0, size) : rows;
+        Integer nextCursor = hasNext ? idOf.apply(pageRows.get(size - 1)) : null;
+        return new CursorPage<>(pageRows.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Respuesta HTTP de la página: el cuerpo sigue siendo la lista y el cursor de la página siguiente
+     * viaja en X-Next-Cursor (ausente en la última página).
+     */
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor.toString());
+        }
+        return response.body(items);
+    }
+}
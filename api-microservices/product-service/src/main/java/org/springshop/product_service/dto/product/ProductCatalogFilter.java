@@ -0,0 +1,25 @@
+package org.springshop.product_service.dto.product;
+
+import lombok.Data;
+
+// Parámetros de consulta del catálogo (paginación por cursor + filtros opcionales)
+@Data
+public class ProductCatalogFilter {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    // Último ID de la página anterior (X-Next-Cursor); null para la primera página
+    private Integer cursor;
+    private Integer size;
+    private Integer categoryId;
+    private Double minPrice;
+    private Double maxPrice;
+    private Boolean inStock;
+
+    public int pageSize() {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+}
@@ -0,0 +1,18 @@
+package org.springshop.product_service.dto.product.stock;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLine {
+    @NotNull
+    private Integer productId;
+    @NotNull
+    @Positive
+    private Integer quantity;
+}
@@ -0,0 +1,14 @@
+package org.springshop.product_service.dto.product.stock;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationLineResult {
+    private Integer productId;
+    private Integer quantity;
+    private StockReservationStatus status;
+}
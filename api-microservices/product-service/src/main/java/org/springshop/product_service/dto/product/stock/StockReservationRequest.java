@@ -0,0 +1,16 @@
+package org.springshop.product_service.dto.product.stock;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+// Todas las líneas de una orden: se reservan todas o ninguna
+@Data
+public class StockReservationRequest {
+    // Orden dueña de la reserva: si viene, el stock queda retenido hasta que se pague o venza
+    private Integer orderId;
+    @NotEmpty
+    private List<@Valid StockReservationLine> lines;
+}
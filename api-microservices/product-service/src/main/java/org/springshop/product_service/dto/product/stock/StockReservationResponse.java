@@ -0,0 +1,16 @@
+package org.springshop.product_service.dto.product.stock;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// reserved = true solo si todas las líneas quedaron reservadas
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationResponse {
+    private boolean reserved;
+    private List<StockReservationLineResult> lines;
+}
@@ -0,0 +1,7 @@
+package org.springshop.product_service.dto.product.stock;
+
+public enum StockReservationStatus {
+    RESERVED,
+    INSUFFICIENT_STOCK,
+    NOT_FOUND
+}
@@ -2,6 +2,7 @@ package org.springshop.product_service.model.product;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -21,7 +22,7 @@ public class Apparel extends Product {
     private String color; //Color
     @Column(name = "brand", length = 100)
     private String brand; //Marca
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = true)
     private ApparelCategory apparelCategory; //Categoría de ropa
 
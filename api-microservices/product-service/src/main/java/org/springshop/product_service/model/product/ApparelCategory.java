@@ -2,6 +2,8 @@ package org.springshop.product_service.model.product;
 
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -14,6 +16,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@BatchSize(size = 50)
 @Getter
 @NoArgsConstructor
 @Setter
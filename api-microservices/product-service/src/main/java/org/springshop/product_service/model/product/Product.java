@@ -6,6 +6,7 @@ import jakarta.persistence.Table;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.ManyToOne;
@@ -19,7 +20,11 @@ import java.util.Objects;
 @NoArgsConstructor
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
-@Table
+// Índices para el catálogo paginado por cursor (filtro por categoría en orden de ID, rango de precio)
+@Table(indexes = {
+        @Index(name = "idx_product_category_id", columnList = "category_id, id"),
+        @Index(name = "idx_product_price", columnList = "price")
+})
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
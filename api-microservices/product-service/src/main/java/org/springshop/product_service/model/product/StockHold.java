@@ -0,0 +1,60 @@
+package org.springshop.product_service.model.product;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+// Stock retenido para una orden pendiente de pago (libro de reservas)
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "stock_reservation", indexes = {
+        @Index(name = "idx_stock_reservation_order", columnList = "order_id"),
+        @Index(name = "idx_stock_reservation_status_expires", columnList = "status, expires_at")
+})
+public class StockHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+    @Column(name = "product_id", nullable = false)
+    private Integer productId;
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private StockHoldStatus status;
+
+    public StockHold(Integer orderId, Integer productId, Integer quantity, LocalDateTime expiresAt) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+        this.status = StockHoldStatus.HELD;
+    }
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        StockHold hold = (StockHold) obj;
+        return id != null && Objects.equals(hold.id, id);
+    }
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
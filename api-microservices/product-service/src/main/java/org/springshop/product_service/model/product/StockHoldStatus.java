@@ -0,0 +1,7 @@
+package org.springshop.product_service.model.product;
+
+public enum StockHoldStatus {
+    HELD,
+    CONFIRMED,
+    RELEASED
+}
@@ -2,6 +2,7 @@ package org.springshop.product_service.model.product;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -23,7 +24,7 @@ public class WorkoutAccessory extends Product {
     private Double weight; //Peso en kg
     @Column(name = "color", length = 50)
     private String color; //Color
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = true)
     private WorkoutAccessoryCategory workoutAccessoryCategory; //Categoría de accesorio de entrenamiento
 
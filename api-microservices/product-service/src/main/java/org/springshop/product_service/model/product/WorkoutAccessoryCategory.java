@@ -5,6 +5,8 @@ import jakarta.persistence.GenerationType;
 
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -18,6 +20,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
+@BatchSize(size = 50)
 @Table
 public class WorkoutAccessoryCategory {
     @Id
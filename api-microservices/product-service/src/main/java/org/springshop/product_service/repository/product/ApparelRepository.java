@@ -3,10 +3,11 @@ package org.springshop.product_service.repository.product;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 import org.springshop.product_service.model.product.Apparel;
 
 @Repository
-public interface ApparelRepository extends JpaRepository<Apparel, Integer> {    
+public interface ApparelRepository extends JpaRepository<Apparel, Integer>, JpaSpecificationExecutor<Apparel> {    
     public List<Apparel> findAllByCategoryId(Integer categoryId);
 }
@@ -1,13 +1,29 @@
 package org.springshop.product_service.repository.product;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springshop.product_service.model.product.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Integer>, JpaSpecificationExecutor<Product> {
     public List<Product> findAllByCategoryId(Integer categoryId);
-    
+
+    // Solo el stock (sin cargar la entidad ni las tablas de subtipos)
+    public List<ProductStockView> findStockByIdIn(Collection<Integer> ids);
+
+    /**
+     * Aplica un delta de stock de forma atómica en la base de datos (UPDATE condicional,
+     * sin leer la entidad), evitando actualizaciones perdidas entre escrituras concurrentes.
+     * Devuelve 1 si se aplicó y 0 si el stock quedaría negativo o el producto no existe.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE product SET stock = stock + :delta WHERE id = :id AND stock + :delta >= 0",
+            nativeQuery = true)
+    int adjustStock(Integer id, int delta);
 }
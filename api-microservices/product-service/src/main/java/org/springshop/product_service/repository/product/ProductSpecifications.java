@@ -0,0 +1,49 @@
+package org.springshop.product_service.repository.product;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
+import org.springshop.product_service.model.product.Product;
+
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.metamodel.Attribute;
+
+public class ProductSpecifications {
+
+    /**
+     * Filtro del catálogo con paginación por cursor (id > cursor), válido para Product y sus subtipos.
+     * Solo se agregan los predicados presentes, para que la consulta pueda usar los índices.
+     * Las asociaciones @ManyToOne del tipo consultado (la categoría y, en los subtipos, su categoría propia)
+     * se traen en el mismo SELECT (fetch join) para no hacer una consulta por fila.
+     */
+    public static <T extends Product> Specification<T> catalog(ProductCatalogFilter filter) {
+        return (root, query, cb) -> {
+            if (query != null && query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.getModel().getSingularAttributes().stream()
+                        .filter(attribute -> attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.MANY_TO_ONE)
+                        .forEach(attribute -> root.fetch(attribute.getName(), JoinType.LEFT));
+            }
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCursor() != null) {
+                predicates.add(cb.greaterThan(root.get("id"), filter.getCursor()));
+            }
+            if (filter.getCategoryId() != null) {
+                predicates.add(cb.equal(root.get("category").get("id"), filter.getCategoryId()));
+            }
+            if (filter.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("price"), filter.getMinPrice()));
+            }
+            if (filter.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), filter.getMaxPrice()));
+            }
+            if (Boolean.TRUE.equals(filter.getInStock())) {
+                predicates.add(cb.greaterThan(root.get("stock"), 0));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package org.springshop.product_service.repository.product;
+
+// Proyección de solo lectura: ID y stock actual de un producto
+public interface ProductStockView {
+    Integer getId();
+    Integer getStock();
+}
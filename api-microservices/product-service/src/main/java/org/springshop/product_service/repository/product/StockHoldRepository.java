@@ -0,0 +1,29 @@
+package org.springshop.product_service.repository.product;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springshop.product_service.model.product.StockHold;
+
+@Repository
+public interface StockHoldRepository extends JpaRepository<StockHold, Integer> {
+    /**
+     * Reservas de una orden bloqueadas (FOR UPDATE, sin SKIP LOCKED): si el barrido las tiene
+     * bloqueadas se espera a que termine y se lee el estado que dejó, así confirmar, liberar y
+     * barrer nunca aplican dos veces la misma reserva.
+     */
+    @Query(value = "SELECT * FROM stock_reservation WHERE order_id = :orderId ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    public List<StockHold> lockHoldsByOrder(Integer orderId);
+
+    /**
+     * Lote de reservas vencidas bloqueadas para liberar. SKIP LOCKED permite que varias
+     * instancias del servicio barran en paralelo sin esperar ni procesar la misma fila.
+     */
+    @Query(value = "SELECT * FROM stock_reservation WHERE status = 'HELD' AND expires_at < :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    public List<StockHold> lockExpiredHolds(LocalDateTime now, int limit);
+}
@@ -1,10 +1,11 @@
 package org.springshop.product_service.repository.product;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springshop.product_service.model.product.Supplement;
 
 import java.util.List;
 
-public interface SupplementRepository extends JpaRepository<Supplement, Integer> {
+public interface SupplementRepository extends JpaRepository<Supplement, Integer>, JpaSpecificationExecutor<Supplement> {
     List<Supplement> findAllByCategoryId(Integer categoryId);
 }
\ No newline at end of file
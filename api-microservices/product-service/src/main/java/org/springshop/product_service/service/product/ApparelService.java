@@ -3,6 +3,8 @@
 package org.springshop.product_service.service.product;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springshop.product_service.dto.product.CursorPage;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.apparel.ApparelRequest;
 import org.springshop.product_service.dto.product.apparel.ApparelResponse;
 import org.springshop.product_service.mapper.product.ApparelMapper;
@@ -12,12 +14,14 @@ import org.springshop.product_service.model.product.Category;
 import org.springshop.product_service.repository.product.ApparelCategoryRepository;
 import org.springshop.product_service.repository.product.ApparelRepository;
 import org.springshop.product_service.repository.product.CategoryRepository;
+import org.springshop.product_service.repository.product.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -26,16 +30,19 @@ public class ApparelService {
     private final ApparelRepository apparelRepository;
     private final CategoryRepository categoryRepository;
     private final ApparelCategoryRepository apparelCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     // Asumimos que ProductService tiene findCategoryOrThrow si quisiéramos inyectarlo, 
     // pero mantenemos los repositorios aquí por la naturaleza especializada del servicio.
 
     public ApparelService(ApparelRepository apparelRepository,
                           CategoryRepository categoryRepository,
-                          ApparelCategoryRepository apparelCategoryRepository) {
+                          ApparelCategoryRepository apparelCategoryRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.apparelRepository = apparelRepository;
         this.categoryRepository = categoryRepository;
         this.apparelCategoryRepository = apparelCategoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // -------------------- APPAREL ESPECÍFICO --------------------
@@ -56,26 +63,16 @@ public class ApparelService {
     }
 
     /**
-     * Obtiene todos los artículos de indumentaria.
+     * Obtiene una página de artículos de indumentaria (cursor por ID + filtros del catálogo).
      */
     @Transactional(readOnly = true)
-    public List<ApparelResponse> getAllApparels() {
-        return apparelRepository.findAll().stream()
-                .map(ApparelMapper::toResponseDTO) // Usamos la convención
-                .collect(Collectors.toList());
+    public CursorPage<ApparelResponse> getApparelPage(ProductCatalogFilter filter) {
+        int size = filter.pageSize();
+        List<Apparel> rows = apparelRepository.findBy(ProductSpecifications.<Apparel>catalog(filter),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+        return CursorPage.of(rows, size, ApparelMapper::toResponseDTO, Apparel::getId);
     }
 
-    /**
-     * Obtiene artículos de indumentaria por la Categoría genérica.
-     * @param categoryId ID de la Categoría.
-     */
-    @Transactional(readOnly = true)
-    public List<ApparelResponse> getApparelsByCategoryId(Integer categoryId) {
-        // Asumiendo que findAllByCategoryId existe en ApparelRepository
-        return apparelRepository.findAllByCategoryId(categoryId).stream()
-                .map(ApparelMapper::toResponseDTO) // Usamos la convención
-                .collect(Collectors.toList());
-    }
 
     /**
      * Obtiene un artículo de indumentaria por ID.
@@ -101,6 +98,7 @@ public class ApparelService {
         ApparelMapper.updateApparel(existing, dto, category, apparelCategory);
         
         Apparel updatedApparel = apparelRepository.save(existing);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
         return ApparelMapper.toResponseDTO(updatedApparel);
     }
 
@@ -111,6 +109,7 @@ public class ApparelService {
         // Optimizamos la eliminación: buscar y eliminar (más eficiente y limpio)
         Apparel apparel = findApparelOrThrow(id);
         apparelRepository.delete(apparel);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
     }
     
     // -------------------- MÉTODOS AUXILIARES Y DE BÚSQUEDA --------------------
@@ -0,0 +1,172 @@
+package org.springshop.product_service.service.product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springshop.product_service.dto.product.ProductResponse;
+import org.springshop.product_service.repository.product.ProductRepository;
+import org.springshop.product_service.repository.product.ProductStockView;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché en memoria de lecturas de productos. Los datos de catálogo (nombre, precio,
+ * categoría) viven en una entrada de TTL largo y el stock en otra de TTL corto, así
+ * las lecturas de precio siguen en caché mientras el stock se mantiene fresco.
+ * Las entradas se invalidan con ProductChangedEvent al confirmarse la transacción.
+ * <p>
+ * Las cachés son asíncronas para que los loaders no corran dentro del lock de Caffeine
+ * (ver {@link #getOrLoad}).
+ */
+@Component
+public class ProductCache {
+
+    private final AsyncCache<Integer, ProductResponse> details;
+    private final AsyncCache<Integer, Integer> stock;
+    private final ProductRepository productRepository;
+
+    public ProductCache(ProductRepository productRepository, MeterRegistry meterRegistry,
+            @Value("${product.cache.max-size:10000}") long maxSize,
+            @Value("${product.cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${product.cache.stock-ttl-seconds:5}") long stockTtlSeconds) {
+        this.productRepository = productRepository;
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+        // stock-ttl-seconds=0 desactiva la caché de stock (siempre se lee de la base de datos)
+        this.stock = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(stockTtlSeconds))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "product.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, stock, "product.stock");
+    }
+
+    /**
+     * Devuelve el producto desde la caché o lo carga con el loader (vacío si no existe).
+     */
+    public Optional<ProductResponse> get(Integer id, Function<Integer, ProductResponse> loader) {
+        ProductResponse cached = getOrLoad(details, id, loader);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        Integer currentStock = getOrLoad(stock, id, key -> loadStock(List.of(key)).get(key));
+        return Optional.of(withStock(cached, currentStock));
+    }
+
+    /**
+     * Versión por lotes: solo los IDs ausentes de la caché se cargan, con una consulta para
+     * los datos de catálogo y otra para el stock. Los IDs inexistentes se omiten.
+     */
+    public List<ProductResponse> getAll(Collection<Integer> ids,
+            Function<Collection<Integer>, List<ProductResponse>> loader) {
+        Map<Integer, ProductResponse> found = getAllOrLoad(details, ids, missing -> loader.apply(toList(missing)).stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity())));
+        Map<Integer, Integer> stocks = getAllOrLoad(stock, found.keySet(), missing -> loadStock(toList(missing)));
+
+        List<ProductResponse> result = new ArrayList<>(found.size());
+        for (ProductResponse product : found.values()) {
+            result.add(withStock(product, stocks.get(product.getId())));
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stock.synchronous().invalidateAll(event.productIds());
+        if (!event.stockOnly()) {
+            details.synchronous().invalidateAll(event.productIds());
+        }
+    }
+
+    /**
+     * Carga la clave en el hilo que llama (y en su transacción), fuera del lock de Caffeine.
+     * Un get(key, loader) síncrono corre el loader dentro de ConcurrentHashMap.compute, un bloque
+     * synchronized que en Java 21 ancla el hilo virtual a su carrier mientras dura la consulta.
+     * Aquí solo se instala un future vacío; las llamadas concurrentes por la misma clave esperan
+     * ese future. Un valor nulo o un error retiran la entrada.
+     */
+    private static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future != created) {
+            return join(future);
+        }
+        try {
+            V value = loader.apply(key);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Versión por lotes: Caffeine llama al loader fuera de sus locks, aquí en el hilo que llama
+    private static <K, V> Map<K, V> getAllOrLoad(AsyncCache<K, V> cache, Collection<K> keys,
+            Function<Set<? extends K>, Map<K, V>> loader) {
+        return join(cache.getAll(keys, (missing, executor) -> {
+            try {
+                return CompletableFuture.completedFuture(loader.apply(missing));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }));
+    }
+
+    // Propaga la excepción original del loader en lugar de la CompletionException
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Map<Integer, Integer> loadStock(List<Integer> ids) {
+        return productRepository.findStockByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductStockView::getId, ProductStockView::getStock));
+    }
+
+    private static List<Integer> toList(Iterable<? extends Integer> ids) {
+        List<Integer> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list;
+    }
+
+    // Copia para no exponer (ni mutar) la instancia guardada en la caché
+    private static ProductResponse withStock(ProductResponse cached, Integer currentStock) {
+        ProductResponse copy = new ProductResponse();
+        copy.setId(cached.getId());
+        copy.setName(cached.getName());
+        copy.setDescription(cached.getDescription());
+        copy.setPrice(cached.getPrice());
+        copy.setStock(currentStock != null ? currentStock : cached.getStock());
+        copy.setImageUrl(cached.getImageUrl());
+        copy.setCategoryId(cached.getCategoryId());
+        copy.setCategoryName(cached.getCategoryName());
+        return copy;
+    }
+}
@@ -0,0 +1,19 @@
+package org.springshop.product_service.service.product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Se publica cuando cambian productos; la caché los invalida al confirmarse la transacción.
+ * @param stockOnly true si solo cambió el stock (los datos de catálogo siguen vigentes).
+ */
+public record ProductChangedEvent(Collection<Integer> productIds, boolean stockOnly) {
+
+    public static ProductChangedEvent of(Integer productId) {
+        return new ProductChangedEvent(List.of(productId), false);
+    }
+
+    public static ProductChangedEvent stock(Collection<Integer> productIds) {
+        return new ProductChangedEvent(productIds, true);
+    }
+}
@@ -5,18 +5,32 @@ package org.springshop.product_service.service.product;
 import jakarta.persistence.EntityNotFoundException;
 
 import org.springshop.product_service.controller.exception.StockException;
+import org.springshop.product_service.dto.product.CursorPage;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.ProductRequest;
 import org.springshop.product_service.dto.product.ProductResponse;
+import org.springshop.product_service.dto.product.stock.StockReservationLine;
+import org.springshop.product_service.dto.product.stock.StockReservationLineResult;
+import org.springshop.product_service.dto.product.stock.StockReservationRequest;
+import org.springshop.product_service.dto.product.stock.StockReservationResponse;
+import org.springshop.product_service.dto.product.stock.StockReservationStatus;
 import org.springshop.product_service.mapper.product.ProductMapper;
 import org.springshop.product_service.model.product.Category;
 import org.springshop.product_service.model.product.Product;
 import org.springshop.product_service.repository.product.CategoryRepository;
 import org.springshop.product_service.repository.product.ProductRepository;
+import org.springshop.product_service.repository.product.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +39,17 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final StockHoldService stockHoldService;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository) {
+    public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+            StockHoldService stockHoldService, ProductCache productCache, ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
+        this.stockHoldService = stockHoldService;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
     }
 
     // -------------------- CRUD DE PRODUCTO GENÉRICO --------------------
@@ -49,22 +70,40 @@ public class ProductService {
     }
 
     /**
-     * Obtiene todos los productos.
+     * Obtiene una página del catálogo (cursor por ID + filtros) en una sola consulta.
      */
     @Transactional(readOnly = true)
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findAll().stream()
-                .map(ProductMapper::toResponseDto)
-                .collect(Collectors.toList());
+    public CursorPage<ProductResponse> getProductPage(ProductCatalogFilter filter) {
+        int size = filter.pageSize();
+        List<Product> rows = productRepository.findBy(ProductSpecifications.<Product>catalog(filter),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+        return CursorPage.of(rows, size, ProductMapper::toResponseDto, Product::getId);
     }
 
     /**
      * Obtiene un producto por su ID (devuelve Optional para manejo RESTful).
+     * Se sirve desde la caché de productos; solo los fallos llegan a la base de datos.
      */
     @Transactional(readOnly = true)
     public Optional<ProductResponse> getProductById(Integer id) {
-        return productRepository.findById(id)
-                .map(ProductMapper::toResponseDto);
+        return productCache.get(id, key -> productRepository.findById(key)
+                .map(ProductMapper::toResponseDto)
+                .orElse(null));
+    }
+
+    /**
+     * Obtiene varios productos por sus IDs en una sola consulta.
+     * Los IDs inexistentes se omiten del resultado. Solo los IDs ausentes de la caché se consultan.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> getProductsByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productCache.getAll(ids.stream().distinct().collect(Collectors.toList()),
+                missing -> productRepository.findAllById(missing).stream()
+                        .map(ProductMapper::toResponseDto)
+                        .collect(Collectors.toList()));
     }
 
     /**
@@ -82,6 +121,7 @@ public class ProductService {
         // Con @Transactional, basta con que el objeto 'existing' sea modificado, 
         // pero llamar a save() lo hace explícito.
         Product updatedProduct = productRepository.save(existing); 
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
         return ProductMapper.toResponseDto(updatedProduct);
     }
 
@@ -93,6 +133,7 @@ public class ProductService {
         // previene una doble consulta (existsById + deleteById).
         Product product = findProductOrThrow(id);
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
     }
     
     // -------------------- MÉTODOS AUXILIARES Y DE BÚSQUEDA --------------------
@@ -122,27 +163,76 @@ public class ProductService {
                     .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
         }
         
-        // 1. Obtener y bloquear la entidad (gracias a @Transactional)
-        Product product = findProductOrThrow(productId);
-        
-        int currentStock = product.getStock();
-        int newStock = currentStock + quantityChange;
-
-        // 2. VALIDACIÓN DEL RANGO (Stock no puede ser negativo)
-        if (newStock < 0) {
+        // 1. Aplicar el cambio en la base de datos con un UPDATE condicional: la
+        // validación (stock no puede ser negativo) y la escritura son una sola sentencia.
+        if (productRepository.adjustStock(productId, quantityChange) == 0) {
+            // 2. Sin filas afectadas: el producto no existe o el stock no alcanza
+            Product product = findProductOrThrow(productId);
             throw new StockException(
                 String.format("No se puede reducir el stock de %s. Stock actual: %d, Reducción solicitada: %d.",
-                    product.getName(), currentStock, Math.abs(quantityChange))
+                    product.getName(), product.getStock(), Math.abs(quantityChange))
             );
         }
-        
-        // 3. Aplicar el cambio
-        product.setStock(newStock);
-        
-        // No es estrictamente necesario llamar a save() dentro de @Transactional si se usa findProductOrThrow,
-        // pero lo hacemos para ser explícitos.
-        Product updated = productRepository.save(product);
-        
-        return ProductMapper.toResponseDto(updated);
+
+        eventPublisher.publishEvent(ProductChangedEvent.stock(List.of(productId)));
+
+        // 3. Releer el producto ya actualizado para la respuesta
+        return ProductMapper.toResponseDto(findProductOrThrow(productId));
+    }
+
+    // -------------------- RESERVA DE STOCK (CHECKOUT) --------------------
+
+    /**
+     * Reserva el stock de todas las líneas de una orden en una sola transacción.
+     * Cada línea es un UPDATE condicional (stock >= cantidad); si alguna falla, la
+     * transacción se marca para rollback y no queda ningún descuento aplicado.
+     * Las líneas del mismo producto se agrupan y se procesan ordenadas por ID para
+     * que checkouts concurrentes bloqueen las filas siempre en el mismo orden.
+     * Si la petición trae orderId, lo reservado se registra en el libro de reservas con vencimiento.
+     */
+    public StockReservationResponse reserveStock(StockReservationRequest request) {
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (StockReservationLine line : request.getLines()) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+
+        List<StockReservationLineResult> results = new ArrayList<>();
+        boolean reserved = true;
+
+        for (Map.Entry<Integer, Integer> entry : quantities.entrySet()) {
+            Integer productId = entry.getKey();
+            int quantity = entry.getValue();
+
+            StockReservationStatus status;
+            if (productRepository.adjustStock(productId, -quantity) == 1) {
+                status = StockReservationStatus.RESERVED;
+            } else {
+                status = productRepository.existsById(productId)
+                        ? StockReservationStatus.INSUFFICIENT_STOCK
+                        : StockReservationStatus.NOT_FOUND;
+                reserved = false;
+            }
+            results.add(new StockReservationLineResult(productId, quantity, status));
+        }
+
+        if (!reserved) {
+            // Todo o nada: deshace los descuentos ya aplicados sin ocultar el detalle por línea
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        } else {
+            eventPublisher.publishEvent(ProductChangedEvent.stock(quantities.keySet()));
+            if (request.getOrderId() != null) {
+                // Queda retenido hasta el pago (confirm) o hasta que venza o se libere (release)
+                stockHoldService.holdForOrder(request.getOrderId(), quantities);
+            }
+        }
+        return new StockReservationResponse(reserved, results);
+    }
+
+    public void confirmReservation(Integer orderId) {
+        stockHoldService.confirmOrder(orderId);
+    }
+
+    public void releaseReservation(Integer orderId) {
+        stockHoldService.releaseOrder(orderId);
     }
-}
\ No newline at end of file
+}
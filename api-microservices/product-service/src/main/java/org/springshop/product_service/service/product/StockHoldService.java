@@ -0,0 +1,120 @@
+package org.springshop.product_service.service.product;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.product_service.controller.exception.StockException;
+import org.springshop.product_service.model.product.StockHold;
+import org.springshop.product_service.model.product.StockHoldStatus;
+import org.springshop.product_service.repository.product.ProductRepository;
+import org.springshop.product_service.repository.product.StockHoldRepository;
+
+/**
+ * Libro de reservas de stock: el stock descontado en el checkout queda retenido
+ * (HELD) hasta que la orden se paga (CONFIRMED) o la reserva vence o se cancela
+ * (RELEASED, devolviendo las unidades al producto).
+ */
+@Service
+@Transactional
+public class StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long holdTtlMinutes;
+
+    public StockHoldService(StockHoldRepository stockHoldRepository, ProductRepository productRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${stock.reservation.ttl-minutes:60}") long holdTtlMinutes) {
+        this.stockHoldRepository = stockHoldRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.holdTtlMinutes = holdTtlMinutes;
+    }
+
+    /**
+     * Registra las retenciones de una orden (se llama dentro de la transacción de la reserva).
+     */
+    public void holdForOrder(Integer orderId, Map<Integer, Integer> quantities) {
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(holdTtlMinutes);
+        List<StockHold> holds = quantities.entrySet().stream()
+                .map(entry -> new StockHold(orderId, entry.getKey(), entry.getValue(), expiresAt))
+                .toList();
+        stockHoldRepository.saveAll(holds);
+    }
+
+    /**
+     * La orden fue pagada: el stock retenido pasa a ser definitivo. Idempotente.
+     *
+     * Las órdenes sin reservas (armadas con POST /orders + /items, que descuentan el stock al añadir cada
+     * ítem, o pendientes desde antes del libro de reservas) ya tienen su stock descontado: no hay nada que confirmar.
+     *
+     * Si las reservas ya vencieron y se liberaron (p. ej. el webhook de pago llegó tarde), se intenta
+     * volver a descontar el stock; si ya no alcanza, se lanza StockException para que la orden no
+     * quede pagada sin stock detrás.
+     */
+    public void confirmOrder(Integer orderId) {
+        List<StockHold> holds = stockHoldRepository.lockHoldsByOrder(orderId);
+        if (holds.isEmpty()) {
+            return;
+        }
+
+        List<StockHold> released = holds.stream()
+                .filter(hold -> hold.getStatus() == StockHoldStatus.RELEASED)
+                .sorted(Comparator.comparing(StockHold::getProductId))
+                .toList();
+        for (StockHold hold : released) {
+            if (productRepository.adjustStock(hold.getProductId(), -hold.getQuantity()) != 1) {
+                // La transacción se revierte: no queda ningún descuento parcial
+                throw new StockException("Stock no longer available for product " + hold.getProductId()
+                        + " of order " + orderId);
+            }
+        }
+
+        for (StockHold hold : holds) {
+            hold.setStatus(StockHoldStatus.CONFIRMED);
+        }
+        stockHoldRepository.saveAll(holds);
+        if (!released.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.stock(
+                    released.stream().map(StockHold::getProductId).distinct().toList()));
+        }
+    }
+
+    /**
+     * La orden no se pagará: devuelve el stock retenido. Idempotente (solo libera HELD).
+     */
+    public void releaseOrder(Integer orderId) {
+        release(stockHoldRepository.lockHoldsByOrder(orderId).stream()
+                .filter(hold -> hold.getStatus() == StockHoldStatus.HELD)
+                .toList());
+    }
+
+    /**
+     * Libera un lote de reservas vencidas en su propia transacción.
+     * @return Cantidad de reservas liberadas (menor que batchSize cuando no quedan más).
+     */
+    public int releaseExpiredBatch(int batchSize) {
+        List<StockHold> expired = stockHoldRepository.lockExpiredHolds(LocalDateTime.now(), batchSize);
+        release(expired);
+        return expired.size();
+    }
+
+    private void release(List<StockHold> holds) {
+        for (StockHold hold : holds) {
+            productRepository.adjustStock(hold.getProductId(), hold.getQuantity());
+            hold.setStatus(StockHoldStatus.RELEASED);
+        }
+        stockHoldRepository.saveAll(holds);
+        if (!holds.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.stock(
+                    holds.stream().map(StockHold::getProductId).distinct().toList()));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.springshop.product_service.service.product;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Devuelve periódicamente el stock de checkouts abandonados (reservas vencidas sin pago).
+ * Cada lote se libera en su propia transacción para no mantener bloqueos largos.
+ */
+@Component
+public class StockHoldSweeper {
+
+    private final StockHoldService stockHoldService;
+    private final int batchSize;
+
+    public StockHoldSweeper(StockHoldService stockHoldService,
+            @Value("${stock.reservation.sweep-batch-size:100}") int batchSize) {
+        this.stockHoldService = stockHoldService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval-ms:60000}")
+    public void releaseExpiredHolds() {
+        int released;
+        int total = 0;
+        do {
+            released = stockHoldService.releaseExpiredBatch(batchSize);
+            total += released;
+        } while (released == batchSize);
+
+        if (total > 0) {
+            System.out.println("Reservas de stock vencidas liberadas: " + total);
+        }
+    }
+}
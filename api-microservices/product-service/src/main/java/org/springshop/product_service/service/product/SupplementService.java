@@ -3,6 +3,8 @@
 package org.springshop.product_service.service.product;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springshop.product_service.dto.product.CursorPage;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.supplement.SupplementRequest;
 import org.springshop.product_service.dto.product.supplement.SupplementResponse;
 // CORRECCIÓN: Renombramos el Mapper para mantener consistencia: SupplementMapper
@@ -11,12 +13,14 @@ import org.springshop.product_service.model.product.Category;
 import org.springshop.product_service.model.product.Supplement;
 import org.springshop.product_service.repository.product.CategoryRepository;
 import org.springshop.product_service.repository.product.SupplementRepository; 
+import org.springshop.product_service.repository.product.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -24,22 +28,26 @@ public class SupplementService {
 
     private final SupplementRepository supplementRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public SupplementService(SupplementRepository supplementRepository, CategoryRepository categoryRepository) {
+    public SupplementService(SupplementRepository supplementRepository, CategoryRepository categoryRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.supplementRepository = supplementRepository;
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // -------------------- LECTURA (READ) Y FILTRADO --------------------
     
     /**
-     * Obtiene todos los suplementos.
+     * Obtiene una página de suplementos (cursor por ID + filtros del catálogo).
      */
     @Transactional(readOnly = true)
-    public List<SupplementResponse> getAllSupplements() { // CONSISTENCIA: Renombramos
-        return supplementRepository.findAll().stream()
-                .map(SupplementMapper::toResponseDTO) // CONSISTENCIA: Renombramos el método del mapper
-                .collect(Collectors.toList());
+    public CursorPage<SupplementResponse> getSupplementPage(ProductCatalogFilter filter) {
+        int size = filter.pageSize();
+        List<Supplement> rows = supplementRepository.findBy(ProductSpecifications.<Supplement>catalog(filter),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+        return CursorPage.of(rows, size, SupplementMapper::toResponseDTO, Supplement::getId);
     }
 
     /**
@@ -50,18 +58,6 @@ public class SupplementService {
         return supplementRepository.findById(id)
                 .map(SupplementMapper::toResponseDTO); // CONSISTENCIA: Renombramos el método del mapper
     }
-    
-    /**
-     * Obtiene suplementos filtrados por la Categoría Genérica.
-     * Requiere: List<Supplement> findAllByCategoryId(Integer categoryId); en el repositorio.
-     */
-    @Transactional(readOnly = true)
-    public List<SupplementResponse> getSupplementsByCategoryId(Integer categoryId) {
-        // ASUMIMOS que el repositorio implementará findAllByCategoryId
-        return supplementRepository.findAllByCategoryId(categoryId).stream()
-            .map(SupplementMapper::toResponseDTO)
-            .collect(Collectors.toList());
-    }
 
     // -------------------- ESCRITURA (CREATE, UPDATE, DELETE) --------------------
 
@@ -92,6 +88,7 @@ public class SupplementService {
         SupplementMapper.updateSupplement(existing, dto, category);
         
         Supplement updatedSupplement = supplementRepository.save(existing);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
         return SupplementMapper.toResponseDTO(updatedSupplement);
     }
 
@@ -102,6 +99,7 @@ public class SupplementService {
         // Optimizamos la eliminación: buscar y eliminar (más eficiente y limpio)
         Supplement supplement = findSupplementOrThrow(id);
         supplementRepository.delete(supplement);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
     }
     
     // -------------------- MÉTODOS AUXILIARES Y DE BÚSQUEDA --------------------
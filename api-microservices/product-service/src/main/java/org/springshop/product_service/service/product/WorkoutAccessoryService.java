@@ -3,6 +3,8 @@
 package org.springshop.product_service.service.product;
 
 import jakarta.persistence.EntityNotFoundException;
+import org.springshop.product_service.dto.product.CursorPage;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
 import org.springshop.product_service.dto.product.workoutaccessory.WorkoutAccessoryRequest;
 import org.springshop.product_service.dto.product.workoutaccessory.WorkoutAccessoryResponse;
 import org.springshop.product_service.mapper.product.WorkoutAccessoryMapper;
@@ -12,6 +14,9 @@ import org.springshop.product_service.model.product.WorkoutAccessoryCategory;
 import org.springshop.product_service.repository.product.CategoryRepository;
 import org.springshop.product_service.repository.product.WorkoutAccessoryCategoryRepository;
 import org.springshop.product_service.repository.product.WorkoutAccessoryRepository; 
+import org.springshop.product_service.repository.product.ProductSpecifications;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,13 +31,16 @@ public class WorkoutAccessoryService {
     private final WorkoutAccessoryRepository accessoryRepository;
     private final CategoryRepository categoryRepository;
     private final WorkoutAccessoryCategoryRepository accessoryCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public WorkoutAccessoryService(WorkoutAccessoryRepository accessoryRepository,
                                    CategoryRepository categoryRepository,
-                                   WorkoutAccessoryCategoryRepository accessoryCategoryRepository) {
+                                   WorkoutAccessoryCategoryRepository accessoryCategoryRepository,
+                                   ApplicationEventPublisher eventPublisher) {
         this.accessoryRepository = accessoryRepository;
         this.categoryRepository = categoryRepository;
         this.accessoryCategoryRepository = accessoryCategoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     // -------------------- WORKOUT ACCESSORY ESPECÍFICO --------------------
@@ -53,13 +61,14 @@ public class WorkoutAccessoryService {
     // -------------------- LECTURA Y FILTRADO (AÑADIDO) --------------------
 
     /**
-     * Obtiene todos los accesorios de entrenamiento.
+     * Obtiene una página de accesorios de entrenamiento (cursor por ID + filtros del catálogo).
      */
     @Transactional(readOnly = true)
-    public List<WorkoutAccessoryResponse> getAllWorkoutAccessories() {
-        return accessoryRepository.findAll().stream()
-                .map(WorkoutAccessoryMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    public CursorPage<WorkoutAccessoryResponse> getWorkoutAccessoryPage(ProductCatalogFilter filter) {
+        int size = filter.pageSize();
+        List<WorkoutAccessory> rows = accessoryRepository.findBy(ProductSpecifications.<WorkoutAccessory>catalog(filter),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+        return CursorPage.of(rows, size, WorkoutAccessoryMapper::toResponseDTO, WorkoutAccessory::getId);
     }
     
     /**
@@ -71,16 +80,6 @@ public class WorkoutAccessoryService {
                 .map(WorkoutAccessoryMapper::toResponseDTO);
     }
     
-    /**
-     * Obtiene accesorios filtrados por la Categoría Genérica (para el controlador principal).
-     * Requiere: List<WorkoutAccessory> findAllByCategoryId(Integer categoryId); en el repositorio.
-     */
-    @Transactional(readOnly = true)
-    public List<WorkoutAccessoryResponse> getWorkoutAccessoriesByCategoryId(Integer categoryId) {
-        return accessoryRepository.findAllByCategoryId(categoryId).stream()
-            .map(WorkoutAccessoryMapper::toResponseDTO)
-            .collect(Collectors.toList());
-    }
 
     /**
      * Obtiene accesorios filtrados por la Categoría de Accesorio Específica (para el controlador de categorías).
@@ -106,6 +105,7 @@ public class WorkoutAccessoryService {
         WorkoutAccessoryMapper.updateWorkoutAccessory(existing, dto, category, accessoryCategory);
         
         WorkoutAccessory updatedWorkoutAccessory = accessoryRepository.save(existing);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
         return WorkoutAccessoryMapper.toResponseDTO(updatedWorkoutAccessory);
     }
 
@@ -115,6 +115,7 @@ public class WorkoutAccessoryService {
     public void deleteWorkoutAccessory(Integer id) {
         WorkoutAccessory accessory = findWorkoutAccessoryOrThrow(id);
         accessoryRepository.delete(accessory);
+        eventPublisher.publishEvent(ProductChangedEvent.of(id));
     }
     
     // -------------------- MÉTODOS AUXILIARES Y DE BÚSQUEDA (SIN CAMBIOS) --------------------
@@ -0,0 +1,154 @@
+package org.springshop.product_service.repository.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springshop.product_service.model.product.Product;
+
+/**
+ * Benchmark de contención sobre un único SKU: 64 escritores concurrentes descuentan
+ * stock de a una unidad. Compara el UPDATE condicional de {@link ProductRepository#adjustStock}
+ * con el read-modify-write anterior (leer, restar en Java y guardar) y comprueba que el
+ * primero no pierde actualizaciones ni deja el stock en negativo.
+ * <p>
+ * Corre contra H2, así que el throughput impreso sirve para comparar ambas estrategias
+ * entre sí, no como cifra absoluta de PostgreSQL.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+// Sin transacción envolvente: cada escritor confirma la suya y los demás ven el resultado
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockContentionBenchmarkTest {
+
+    private static final int WRITERS = 64;
+    private static final int ATTEMPTS_PER_WRITER = 20;
+    // Menos stock que intentos: parte de los escritores debe encontrarse sin stock
+    private static final int INITIAL_STOCK = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void conditionalUpdateLosesNoDecrements() throws Exception {
+        Integer productId = persistProduct();
+
+        Result result = run("UPDATE condicional", () -> transaction.execute(status ->
+                productRepository.adjustStock(productId, -1) == 1));
+
+        int finalStock = stockOf(productId);
+        assertThat(result.errors()).isZero();
+        assertThat(result.successes()).isEqualTo(INITIAL_STOCK);
+        assertThat(finalStock).isZero();
+        assertThat(INITIAL_STOCK - finalStock).isEqualTo(result.successes());
+    }
+
+    @Test
+    void readModifyWriteBaseline() throws Exception {
+        Integer productId = persistProduct();
+
+        // Implementación previa: sin versión ni bloqueo, dos escritores pueden leer el mismo stock
+        Result result = run("read-modify-write", () -> transaction.execute(status -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (product.getStock() < 1) {
+                return false;
+            }
+            product.setStock(product.getStock() - 1);
+            productRepository.save(product);
+            return true;
+        }));
+
+        int finalStock = stockOf(productId);
+        int lostUpdates = result.successes() - (INITIAL_STOCK - finalStock);
+        System.out.printf("read-modify-write: %d descuentos confirmados, %d aplicados, %d perdidos%n",
+                result.successes(), INITIAL_STOCK - finalStock, lostUpdates);
+        assertThat(finalStock).isBetween(0, INITIAL_STOCK);
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private Result run(String label, Writer writer) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int w = 0; w < WRITERS; w++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_WRITER; i++) {
+                        try {
+                            if (writer.decrement()) {
+                                successes.incrementAndGet();
+                            }
+                        } catch (RuntimeException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+
+            int attempts = WRITERS * ATTEMPTS_PER_WRITER;
+            System.out.printf("%s: %d escritores, %d intentos en %d ms (%.0f ops/s), %d errores%n",
+                    label, WRITERS, attempts, TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    attempts / (elapsedNanos / 1_000_000_000.0), errors.get());
+            return new Result(successes.get(), errors.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Integer persistProduct() {
+        Product product = new Product();
+        product.setName("SKU bajo contención");
+        product.setPrice(10.0);
+        product.setStock(INITIAL_STOCK);
+        product.setImageUrl("sku.png");
+        return productRepository.save(product).getId();
+    }
+
+    private int stockOf(Integer productId) {
+        return productRepository.findById(productId).orElseThrow().getStock();
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        boolean decrement();
+    }
+
+    private record Result(int successes, int errors) {
+    }
+}
@@ -0,0 +1,100 @@
+package org.springshop.product_service.service.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springshop.product_service.dto.product.CursorPage;
+import org.springshop.product_service.dto.product.ProductCatalogFilter;
+import org.springshop.product_service.dto.product.ProductResponse;
+import org.springshop.product_service.dto.product.apparel.ApparelResponse;
+import org.springshop.product_service.model.product.Apparel;
+import org.springshop.product_service.model.product.ApparelCategory;
+import org.springshop.product_service.model.product.Category;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Una página del catálogo, general o de un subtipo, debe costar una sola sentencia sin importar el tamaño
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ ProductService.class, ApparelService.class })
+class CatalogPageTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ApparelService apparelService;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private StockHoldService stockHoldService;
+    @MockitoBean
+    private ProductCache productCache;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Cada artículo con categorías distintas: un acceso perezoso por fila se notaría en el conteo
+        for (int i = 0; i < 10; i++) {
+            persistApparel(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void apparelPageFetchesBothCategoriesInOneStatement() {
+        CursorPage<ApparelResponse> page = apparelService.getApparelPage(filter(4));
+
+        assertThat(page.getItems()).hasSize(4)
+                .allSatisfy(apparel -> assertThat(apparel.getApparelCategoryName()).startsWith("Ropa"));
+        assertThat(page.getNextCursor()).isEqualTo(page.getItems().get(3).getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void productPageDoesNotLoadSubtypeCategories() {
+        CursorPage<ProductResponse> page = productService.getProductPage(filter(10));
+
+        assertThat(page.getItems()).hasSize(10);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static ProductCatalogFilter filter(int size) {
+        ProductCatalogFilter filter = new ProductCatalogFilter();
+        filter.setSize(size);
+        return filter;
+    }
+
+    private void persistApparel(int index) {
+        Category category = entityManager.persist(new Category("Categoría " + index));
+        ApparelCategory apparelCategory = entityManager.persist(new ApparelCategory("Ropa " + index));
+
+        Apparel apparel = new Apparel();
+        apparel.setName("Camiseta " + index);
+        apparel.setPrice(20.0);
+        apparel.setStock(5);
+        apparel.setCategory(category);
+        apparel.setApparelCategory(apparelCategory);
+        entityManager.persist(apparel);
+    }
+}
@@ -0,0 +1,103 @@
+package org.springshop.product_service.service.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springshop.product_service.dto.product.ProductResponse;
+import org.springshop.product_service.repository.product.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordingStream;
+
+// Los loaders de la caché bloquean (consultas JPA) y corren en hilos virtuales de Tomcat:
+// no deben bloquear dentro de un monitor, o el hilo virtual queda anclado a su carrier.
+class ProductCachePinningTest {
+
+    private static final int READERS = 200;
+    private static final int PRODUCTS = 20;
+
+    private ProductCache productCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.findStockByIdIn(anyList())).thenReturn(List.of());
+        productCache = new ProductCache(productRepository, new SimpleMeterRegistry(), 1000, 600, 5);
+    }
+
+    @Test
+    void blockingLoadsDoNotPinVirtualThreads() throws Exception {
+        AtomicInteger pinned = new AtomicInteger();
+        List<Optional<ProductResponse>> results = new ArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Optional<ProductResponse>>> futures = new ArrayList<>();
+                for (int i = 0; i < READERS; i++) {
+                    int id = i % PRODUCTS + 1;
+                    futures.add(executor.submit(() -> productCache.get(id, this::slowLoad)));
+                }
+                for (Future<Optional<ProductResponse>> future : futures) {
+                    results.add(future.get(30, TimeUnit.SECONDS));
+                }
+            }
+            recording.stop();
+        }
+
+        assertThat(results).allMatch(Optional::isPresent);
+        // Las lecturas concurrentes de un mismo ID esperan la misma carga
+        assertThat(loads.get()).isEqualTo(PRODUCTS);
+        assertThat(pinned.get()).isZero();
+    }
+
+    @Test
+    void missingProductIsNotCachedAndLoaderErrorsPropagate() {
+        assertThat(productCache.get(99, key -> null)).isEmpty();
+        assertThat(productCache.get(99, this::slowLoad)).isPresent();
+
+        IllegalStateException failure = new IllegalStateException("db down");
+        assertThatThrownBy(() -> productCache.get(100, key -> {
+            throw failure;
+        })).isSameAs(failure);
+        assertThat(productCache.get(100, this::slowLoad)).isPresent();
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    // Simula la latencia de la consulta a la base de datos
+    private ProductResponse slowLoad(Integer id) {
+        loads.incrementAndGet();
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        ProductResponse product = new ProductResponse();
+        product.setId(id);
+        product.setName("Producto " + id);
+        product.setPrice(10.0);
+        product.setStock(5);
+        return product;
+    }
+}
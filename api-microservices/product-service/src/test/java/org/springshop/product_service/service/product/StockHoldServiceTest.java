@@ -0,0 +1,92 @@
+package org.springshop.product_service.service.product;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springshop.product_service.controller.exception.StockException;
+import org.springshop.product_service.model.product.StockHold;
+import org.springshop.product_service.model.product.StockHoldStatus;
+import org.springshop.product_service.repository.product.ProductRepository;
+import org.springshop.product_service.repository.product.StockHoldRepository;
+
+class StockHoldServiceTest {
+
+    private static final int ORDER_ID = 42;
+
+    private StockHoldRepository stockHoldRepository;
+    private ProductRepository productRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private StockHoldService stockHoldService;
+
+    @BeforeEach
+    void setUp() {
+        stockHoldRepository = mock(StockHoldRepository.class);
+        productRepository = mock(ProductRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        stockHoldService = new StockHoldService(stockHoldRepository, productRepository, eventPublisher, 60);
+    }
+
+    // Orden armada con POST /orders + /items, o pendiente desde antes del libro de reservas
+    @Test
+    void confirmOrderWithoutHoldsIsANoOp() {
+        when(stockHoldRepository.lockHoldsByOrder(ORDER_ID)).thenReturn(List.of());
+
+        stockHoldService.confirmOrder(ORDER_ID);
+
+        verify(productRepository, never()).adjustStock(any(), anyInt());
+        verify(stockHoldRepository, never()).saveAll(anyList());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void confirmOrderConfirmsHeldStockWithoutTouchingTheProduct() {
+        StockHold hold = hold(1, 2, StockHoldStatus.HELD);
+        when(stockHoldRepository.lockHoldsByOrder(ORDER_ID)).thenReturn(List.of(hold));
+
+        stockHoldService.confirmOrder(ORDER_ID);
+
+        assertThat(hold.getStatus()).isEqualTo(StockHoldStatus.CONFIRMED);
+        verify(productRepository, never()).adjustStock(any(), anyInt());
+    }
+
+    @Test
+    void confirmOrderReReservesReleasedStock() {
+        StockHold hold = hold(1, 2, StockHoldStatus.RELEASED);
+        when(stockHoldRepository.lockHoldsByOrder(ORDER_ID)).thenReturn(List.of(hold));
+        when(productRepository.adjustStock(1, -2)).thenReturn(1);
+
+        stockHoldService.confirmOrder(ORDER_ID);
+
+        assertThat(hold.getStatus()).isEqualTo(StockHoldStatus.CONFIRMED);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+    }
+
+    @Test
+    void confirmOrderFailsWhenReleasedStockIsGone() {
+        StockHold hold = hold(1, 2, StockHoldStatus.RELEASED);
+        when(stockHoldRepository.lockHoldsByOrder(ORDER_ID)).thenReturn(List.of(hold));
+        when(productRepository.adjustStock(1, -2)).thenReturn(0);
+
+        assertThatThrownBy(() -> stockHoldService.confirmOrder(ORDER_ID)).isInstanceOf(StockException.class);
+        assertThat(hold.getStatus()).isEqualTo(StockHoldStatus.RELEASED);
+    }
+
+    private static StockHold hold(int productId, int quantity, StockHoldStatus status) {
+        StockHold hold = new StockHold(ORDER_ID, productId, quantity, LocalDateTime.now().plusMinutes(60));
+        hold.setStatus(status);
+        return hold;
+    }
+}
@@ -0,0 +1,31 @@
+package org.springshop.shipment_service.controller.shipment;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springshop.shipment_service.dto.event.OrderEvent;
+import org.springshop.shipment_service.service.shipment.OrderEventConsumer;
+
+// Endpoint interno: lo llama el relay del outbox de órdenes (el gateway no lo expone)
+@RestController
+@RequestMapping("/api/v2/shipments/events")
+public class OrderEventController {
+
+    private final OrderEventConsumer orderEventConsumer;
+
+    public OrderEventController(OrderEventConsumer orderEventConsumer) {
+        this.orderEventConsumer = orderEventConsumer;
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<Void> consumeOrderEvents(@RequestBody List<OrderEvent> events) {
+
+        orderEventConsumer.consume(events);
+
+        return ResponseEntity.noContent().build();
+    }
+}
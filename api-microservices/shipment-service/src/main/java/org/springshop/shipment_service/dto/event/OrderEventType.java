@@ -0,0 +1,6 @@
+package org.springshop.shipment_service.dto.event;
+
+public enum OrderEventType {
+    ORDER_PAID,
+    ORDER_FAILED
+}
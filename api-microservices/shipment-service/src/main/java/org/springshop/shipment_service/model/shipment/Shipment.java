@@ -12,13 +12,15 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
 @Setter
 @Getter
 @Entity
-@Table(name = "shipments")
+// Un envío por orden: la reentrega de ORDER_PAID no puede duplicarlo
+@Table(name = "shipments", uniqueConstraints = @UniqueConstraint(name = "uk_shipments_order_id", columnNames = "order_id"))
 public class Shipment {
 
     @Id
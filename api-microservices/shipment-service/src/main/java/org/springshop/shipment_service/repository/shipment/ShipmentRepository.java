@@ -1,6 +1,8 @@
 package org.springshop.shipment_service.repository.shipment;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springshop.shipment_service.model.shipment.Shipment;
 
 import java.util.List;
@@ -10,4 +12,17 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Integer> {
     
     List<Shipment> findAllByOrderId(Integer orderId);
     Optional<Shipment> findTopByOrderIdOrderByShippedAtDesc(Integer orderId);
+
+    /**
+     * Crea el envío de la orden salvo que ya exista (restricción única en order_id). Devuelve las filas
+     * insertadas: 0 si ya existía, también cuando otra transacción lo insertó a la vez. El duplicado no
+     * llega a ser un error, que en PostgreSQL abortaría la transacción de todo el lote.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            INSERT INTO shipments (order_id, tracking_number, carrier, status, shipped_at)
+            VALUES (:orderId, :trackingNumber, :carrier, :status, CURRENT_TIMESTAMP)
+            ON CONFLICT (order_id) DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(Integer orderId, String trackingNumber, String carrier, String status);
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package org.springshop.shipment_service.service.shipment;
+
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springshop.shipment_service.dto.event.OrderEvent;
+import org.springshop.shipment_service.model.shipment.Shipment;
+import org.springshop.shipment_service.model.shipment.ShipmentStatus;
+import org.springshop.shipment_service.repository.shipment.ShipmentRepository;
+
+/**
+ * Consume los eventos de orden del outbox: crea el envío de las órdenes pagadas y devuelve
+ * los envíos aún no despachados de las órdenes fallidas. Idempotente ante reentregas.
+ */
+@Service
+public class OrderEventConsumer {
+
+    private static final String UNASSIGNED = "No assign";
+
+    private final ShipmentRepository shipmentRepository;
+    private final ShipmentService shipmentService;
+
+    public OrderEventConsumer(ShipmentRepository shipmentRepository, ShipmentService shipmentService) {
+        this.shipmentRepository = shipmentRepository;
+        this.shipmentService = shipmentService;
+    }
+
+    /**
+     * Procesa el lote en una transacción. La simulación de cada envío nuevo se lanza tras el commit,
+     * cuando el envío ya es visible para el hilo @Async.
+     */
+    @Transactional
+    public void consume(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            switch (event.getType()) {
+                case ORDER_PAID -> {
+                    Integer shipmentId = createShipmentIfAbsent(event.getOrderId());
+                    if (shipmentId != null) {
+                        startShipmentAfterCommit(shipmentId);
+                    }
+                }
+                case ORDER_FAILED -> returnPendingShipments(event.getOrderId());
+            }
+        }
+    }
+
+    /**
+     * Crea el envío de la orden si aún no existe. Devuelve su ID, o null si ya estaba creado (reentrega,
+     * o el mismo evento procesado a la vez por otra instancia).
+     */
+    private Integer createShipmentIfAbsent(Integer orderId) {
+        if (shipmentRepository.insertIfAbsent(orderId, UNASSIGNED, UNASSIGNED, ShipmentStatus.CREATED.name()) == 0) {
+            return null;
+        }
+        return shipmentRepository.findTopByOrderIdOrderByShippedAtDesc(orderId)
+                .map(Shipment::getId)
+                .orElseThrow();
+    }
+
+    private void startShipmentAfterCommit(Integer shipmentId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                shipmentService.simulateShipment(shipmentId);
+            }
+        });
+    }
+
+    private void returnPendingShipments(Integer orderId) {
+        shipmentRepository.findAllByOrderId(orderId).stream()
+                .filter(shipment -> shipment.getStatus() == ShipmentStatus.CREATED)
+                .forEach(shipment -> shipment.setStatus(ShipmentStatus.RETURNED));
+    }
+}
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springshop.shipment_service.dto.shipment.ShipmentRequestDto;
 import org.springshop.shipment_service.dto.shipment.ShipmentResponseDto;
@@ -82,8 +83,13 @@ public class ShipmentService {
         return shipmentRepository.findTopByOrderIdOrderByShippedAtDesc(orderId)
                 .map(ShipmentMapper::toResponseDto);
     }
+    /**
+     * Sin transacción propia (NOT_SUPPORTED): la espera simulada no debe retener una conexión
+     * del pool de la base de datos (con hilos virtuales habría miles esperando a la vez).
+     * Cada acceso a repositorio abre su propia transacción corta.
+     */
     @Async
-    @Transactional 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void simulateShipment(Integer shipmentId) {
         System.out.println("Hilo: " + Thread.currentThread().getName() + " - Iniciando envío para Shipment ID: " + shipmentId);
 
@@ -99,7 +105,7 @@ public class ShipmentService {
             shipment.setTrackingNumber(generateRandomTrackingId()); // Simular asignación de tracking
             shipment.setDeliveredAt(LocalDateTime.now());
             shipment.setCarrier("UPS");
-            // 3. Persistir el cambio de estado (guardado por el Dirty Checking de @Transactional)
+            // 3. Persistir el cambio de estado
             shipmentRepository.save(shipment);
             
             System.out.println("✅ Hilo: " + Thread.currentThread().getName() + " - Shipment ID: " + shipmentId + " CAMBIADO a SHIPPED.");
@@ -21,6 +21,7 @@ public class WebConfig {
                         .allowedOrigins("http://localhost:8080")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("X-Next-Cursor")
                         .allowCredentials(true);
             }
         };
@@ -2,26 +2,42 @@ package org.springshop.storage_service.controller;
 
 import org.springshop.storage_service.model.File;
 import org.springshop.storage_service.service.FileStorageService;
-import org.springframework.core.io.ByteArrayResource;
+import org.springshop.storage_service.service.ImageVariantService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/v2/files")
 public class FileController {
 
+    // private: las rutas de archivos requieren autenticación en el gateway, no deben guardarse en caches compartidas
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
     private final FileStorageService storageService;
+    private final ImageVariantService variantService;
 
-    public FileController(FileStorageService storageService) {
+    public FileController(FileStorageService storageService, ImageVariantService variantService) {
         this.storageService = storageService;
+        this.variantService = variantService;
     }
     @GetMapping
-    public ResponseEntity<List<File>> getAllFiles() {
-        return ResponseEntity.ok(storageService.getAllFiles());
+    public ResponseEntity<List<File>> getAllFiles(@RequestParam(required = false) String contentType,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer size) {
+        return storageService.getFilePage(contentType, cursor, size).toResponse();
     }
     @PostMapping("/upload")
     public ResponseEntity<File> upload(@RequestParam("file") MultipartFile file) throws IOException {
@@ -29,11 +45,42 @@ public class FileController {
         return ResponseEntity.ok(saved);
     }
 
+    /**
+     * Descarga en streaming. Spring atiende las cabeceras Range (206 Partial Content) sobre el Resource
+     * y calcula Content-Length a partir del tamaño en disco, sin cargar el archivo en memoria.
+     *
+     * Con w, h o fmt se sirve una variante redimensionada de la imagen (ver ImageVariantService).
+     *
+     * Los archivos no cambian una vez subidos, así que se sirven con ETag fuerte, Last-Modified y
+     * Cache-Control immutable; If-None-Match / If-Modified-Since responden 304 sin abrir el archivo.
+     */
     @GetMapping("/{filename}")
-    public ResponseEntity<ByteArrayResource> download(@PathVariable String filename) throws IOException {
-        byte[] data = storageService.getFile(filename);
-        ByteArrayResource resource = new ByteArrayResource(data);
+    public ResponseEntity<Resource> download(@PathVariable String filename,
+            @RequestParam(name = "w", required = false) Integer width,
+            @RequestParam(name = "h", required = false) Integer height,
+            @RequestParam(name = "fmt", required = false) String format,
+            WebRequest request) throws IOException {
+        Optional<File> file = storageService.findFile(filename);
+        if (file.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (width != null || height != null || format != null) {
+            return downloadVariant(file.get(), width, height, format, request);
+        }
+
+        String etag = etagOf(file.get(), null);
+        long lastModified = lastModifiedOf(file.get());
+        if (request.checkNotModified(etag, lastModified)) {
+            return notModified();
+        }
+
+        Resource resource = storageService.getFileResource(file.get());
         return ResponseEntity.ok()
+                .contentType(mediaTypeOf(file.get()))
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(IMMUTABLE)
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
                 .body(resource);
     }
@@ -43,5 +90,59 @@ public class FileController {
         storageService.deleteFile(filename);
         return ResponseEntity.noContent().build();
     }
-}
 
+    private ResponseEntity<Resource> downloadVariant(File file, Integer width, Integer height, String format,
+            WebRequest request) throws IOException {
+        try {
+            String fmt = variantService.resolveFormat(file, format);
+            String etag = etagOf(file, (width != null ? width : "") + "x" + (height != null ? height : "") + "." + fmt);
+            long lastModified = lastModifiedOf(file);
+            // La comprobación va antes del redimensionado: un 304 no genera la variante
+            if (request.checkNotModified(etag, lastModified)) {
+                return notModified();
+            }
+
+            Path variant = variantService.getVariant(file, width, height, fmt);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(ImageVariantService.mediaTypeOf(fmt)))
+                    .eTag(etag)
+                    .lastModified(lastModified)
+                    .cacheControl(IMMUTABLE)
+                    .body(new FileSystemResource(variant));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static ResponseEntity<Resource> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(IMMUTABLE).build();
+    }
+
+    /**
+     * ETag fuerte a partir de los metadatos: el hash del contenido o, en archivos anteriores al
+     * almacenamiento por contenido, nombre + tamaño + fecha de subida.
+     */
+    private static String etagOf(File file, String variant) {
+        String base = file.getContentHash() != null
+                ? file.getContentHash()
+                : DigestUtils.md5DigestAsHex((file.getFilename() + ":" + file.getSize() + ":" + file.getUploadedAt())
+                        .getBytes(StandardCharsets.UTF_8));
+        return "\"" + (variant != null ? base + "-" + variant : base) + "\"";
+    }
+
+    private static long lastModifiedOf(File file) {
+        return file.getUploadedAt() != null
+                ? file.getUploadedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+
+    private static MediaType mediaTypeOf(File file) {
+        try {
+            return file.getContentType() != null
+                    ? MediaType.parseMediaType(file.getContentType())
+                    : MediaType.APPLICATION_OCTET_STREAM;
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.springshop.storage_service.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springshop.storage_service.dto.upload.UploadSessionRequest;
+import org.springshop.storage_service.dto.upload.UploadSessionResponse;
+import org.springshop.storage_service.model.File;
+import org.springshop.storage_service.service.ChunkedUploadService;
+
+import java.io.IOException;
+
+/**
+ * Protocolo de subida por partes:
+ * 1. POST /uploads → uploadId
+ * 2. PUT /uploads/{uploadId}/parts/{n} con el contenido en bruto y la cabecera X-Chunk-SHA256
+ * 3. POST /uploads/{uploadId}/complete → File
+ *
+ * Tras un corte, GET /uploads/{uploadId} indica la siguiente parte a enviar.
+ */
+@RestController
+@RequestMapping("/api/v2/files/uploads")
+public class UploadController {
+
+    public static final String CHUNK_CHECKSUM_HEADER = "X-Chunk-SHA256";
+    public static final String CONTENT_CHECKSUM_HEADER = "X-Content-SHA256";
+
+    private final ChunkedUploadService uploadService;
+
+    public UploadController(ChunkedUploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> initiate(@RequestBody UploadSessionRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(uploadService.initiate(request));
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionResponse> getSession(@PathVariable String uploadId) {
+        return ResponseEntity.ok(uploadService.getSession(uploadId));
+    }
+
+    // El cuerpo se lee directamente del request, sin pasar por el resolver multipart
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionResponse> uploadPart(@PathVariable String uploadId,
+            @PathVariable int partNumber,
+            @RequestHeader(name = CHUNK_CHECKSUM_HEADER, required = false) String checksum,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(uploadService.uploadPart(uploadId, partNumber, checksum, request.getInputStream()));
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<File> complete(@PathVariable String uploadId,
+            @RequestHeader(name = CONTENT_CHECKSUM_HEADER, required = false) String checksum) throws IOException {
+        return ResponseEntity.ok(uploadService.complete(uploadId, checksum));
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abort(@PathVariable String uploadId) throws IOException {
+        uploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
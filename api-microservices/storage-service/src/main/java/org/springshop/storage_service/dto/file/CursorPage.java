@@ -0,0 +1,51 @@
+package org.springshop.storage_service.dto.file;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.http.ResponseEntity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// Página de resultados por cursor (más recientes primero): nextCursor es null en la última página
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public static int pageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas con una de más (size + 1): si la fila extra
+     * existe hay página siguiente.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Long> idOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> page = hasNext ? rows.subList(0, size) : rows;
+        Long nextCursor = hasNext ? idOf.apply(page.get(size - 1)) : null;
+        return new CursorPage<>(List.copyOf(page), nextCursor);
+    }
+
+    /**
+     * Respuesta HTTP de la página: el cuerpo sigue siendo la lista y el cursor de la página siguiente
+     * viaja en X-Next-Cursor (ausente en la última página).
+     */
+    public ResponseEntity<List<T>> toResponse() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor.toString());
+        }
+        return response.body(items);
+    }
+}
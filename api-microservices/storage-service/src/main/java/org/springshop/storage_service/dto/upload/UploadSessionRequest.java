@@ -0,0 +1,11 @@
+package org.springshop.storage_service.dto.upload;
+
+import lombok.Data;
+
+@Data
+public class UploadSessionRequest {
+    private String originalName;
+    private String contentType;
+    // Obligatorio: limita lo que se acepta en las partes y complete comprueba que coincide con lo recibido
+    private Long totalSize;
+}
@@ -0,0 +1,23 @@
+package org.springshop.storage_service.dto.upload;
+
+import lombok.Data;
+import org.springshop.storage_service.model.UploadSession;
+
+@Data
+public class UploadSessionResponse {
+    private String uploadId;
+    private String originalName;
+    private Long totalSize;
+    private int nextPart;
+    private long receivedBytes;
+
+    public static UploadSessionResponse from(UploadSession session) {
+        UploadSessionResponse response = new UploadSessionResponse();
+        response.setUploadId(session.getId());
+        response.setOriginalName(session.getOriginalName());
+        response.setTotalSize(session.getTotalSize());
+        response.setNextPart(session.getNextPart());
+        response.setReceivedBytes(session.getReceivedBytes());
+        return response;
+    }
+}
@@ -0,0 +1,27 @@
+package org.springshop.storage_service.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Contenido almacenado en disco, identificado por su SHA-256. Varios {@link File} pueden
+ * apuntar al mismo blob; refCount cuenta cuántos lo hacen.
+ */
+@Setter @Getter
+@Entity
+@Table(name = "stored_blob")
+public class Blob {
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private long size;
+    private String path;
+    private int refCount;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
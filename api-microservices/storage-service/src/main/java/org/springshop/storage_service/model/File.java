@@ -1,5 +1,8 @@
 package org.springshop.storage_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,7 +11,10 @@ import java.time.LocalDateTime;
 
 @Setter @Getter
 @Entity
-@Table(name = "file")
+@Table(name = "file", indexes = {
+        @Index(name = "idx_file_content_type", columnList = "contentType, id"),
+        @Index(name = "idx_file_blob_hash", columnList = "blob_hash")
+})
 public class File {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -20,7 +26,21 @@ public class File {
     private long size;
     private String path;
 
+    // Blob con el contenido (null en archivos subidos antes del almacenamiento por contenido)
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "blob_hash")
+    private Blob blob;
+
+    // Lo marca el recolector cuando el contenido ya no está en disco
+    private Boolean missing = false;
+
     @Column(updatable = false)
     private LocalDateTime uploadedAt = LocalDateTime.now();
-}
 
+    // El id del proxy LAZY está disponible sin cargar el blob
+    @JsonProperty("contentHash")
+    public String getContentHash() {
+        return blob != null ? blob.getHash() : null;
+    }
+}
@@ -0,0 +1,31 @@
+package org.springshop.storage_service.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Subida por partes en curso. Las partes se escriben en orden sobre un temporal; nextPart y
+ * receivedBytes indican al cliente desde dónde reanudar.
+ */
+@Setter @Getter
+@Entity
+@Table(name = "upload_session", indexes = @Index(name = "idx_upload_session_updated_at", columnList = "updatedAt"))
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    private String originalName;
+    private String contentType;
+    private Long totalSize;
+    private int nextPart = 1;
+    private long receivedBytes;
+
+    @Column(updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -0,0 +1,30 @@
+package org.springshop.storage_service.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springshop.storage_service.model.Blob;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BlobRepository extends JpaRepository<Blob, String> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Blob b SET b.refCount = b.refCount + :delta WHERE b.hash = :hash")
+    int addToRefCount(@Param("hash") String hash, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Blob b WHERE b.hash = :hash AND b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    @Query("SELECT b.hash FROM Blob b WHERE b.hash IN :hashes")
+    List<String> findExistingHashes(@Param("hashes") Collection<String> hashes);
+
+    // Recorrido por clave para el recolector
+    List<Blob> findByHashGreaterThanOrderByHashAsc(String hash, Pageable pageable);
+}
@@ -2,13 +2,45 @@ package org.springshop.storage_service.repository;
 
 
 import org.springshop.storage_service.model.File;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FileRepository extends JpaRepository<File, Long> {
     Optional<File> findByFilename(String filename);
     void deleteByFilename(String filename);
+
+    /**
+     * Página de archivos (más recientes primero) anteriores al cursor. El id crece con la fecha de subida,
+     * así que el orden por id es el orden por uploadedAt y basta la clave primaria.
+     */
+    @Query("SELECT f FROM File f WHERE f.id < :cursor ORDER BY f.id DESC")
+    List<File> findPage(@Param("cursor") long cursor, Pageable pageable);
+
+    // Igual, filtrando por tipo de contenido (índice contentType, id)
+    @Query("SELECT f FROM File f WHERE f.contentType = :contentType AND f.id < :cursor ORDER BY f.id DESC")
+    List<File> findPageByContentType(@Param("contentType") String contentType, @Param("cursor") long cursor,
+            Pageable pageable);
+
+    // Los archivos antiguos se guardaban en la raíz con su filename como nombre en disco
+    @Query("SELECT f.filename FROM File f WHERE f.filename IN :filenames")
+    List<String> findExistingFilenames(@Param("filenames") Collection<String> filenames);
+
+    // Archivos anteriores al almacenamiento por contenido, recorridos por id
+    List<File> findByBlobIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE File f SET f.missing = :missing
+            WHERE f.blob.hash = :hash AND (f.missing IS NULL OR f.missing <> :missing)
+            """)
+    int markMissingByBlobHash(@Param("hash") String hash, @Param("missing") boolean missing);
 }
@@ -0,0 +1,32 @@
+package org.springshop.storage_service.repository;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springshop.storage_service.model.UploadSession;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    // Bloqueo corto para cerrar la sesión; las partes no lo usan mientras se transmiten
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+
+    // Avanza la sesión solo si sigue esperando esa parte (nadie la movió mientras se escribía)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UploadSession s SET s.nextPart = :partNumber + 1, s.receivedBytes = :receivedBytes, "
+            + "s.updatedAt = :now WHERE s.id = :id AND s.nextPart = :partNumber")
+    int advance(@Param("id") String id, @Param("partNumber") int partNumber,
+            @Param("receivedBytes") long receivedBytes, @Param("now") LocalDateTime now);
+
+    List<UploadSession> findByUpdatedAtBefore(LocalDateTime cutoff);
+}
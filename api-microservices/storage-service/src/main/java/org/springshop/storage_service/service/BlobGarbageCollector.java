@@ -0,0 +1,228 @@
+package org.springshop.storage_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springshop.storage_service.model.Blob;
+import org.springshop.storage_service.model.File;
+import org.springshop.storage_service.repository.BlobRepository;
+import org.springshop.storage_service.repository.FileRepository;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reconciliación entre la base de datos y el directorio de almacenamiento, en segundo plano:
+ * 1. Recorre blobs/ en streaming y borra los archivos sin fila en stored_blob.
+ * 2. Recorre stored_blob (y los File antiguos sin blob) por lotes y marca como missing los File
+ *    cuyo contenido ya no está en disco.
+ *
+ * Se procesa por lotes con un máximo de elementos por segundo para no competir con el tráfico.
+ * Los blobs más recientes que el periodo de gracia se ignoran: pueden pertenecer a una subida en curso.
+ */
+@Component
+public class BlobGarbageCollector {
+
+    private final BlobStore blobStore;
+    private final BlobRepository blobRepository;
+    private final FileRepository fileRepository;
+    private final TransactionTemplate transaction;
+    private final Path rootDir;
+    private final int batchSize;
+    private final int maxItemsPerSecond;
+    private final long graceMinutes;
+
+    public BlobGarbageCollector(BlobStore blobStore,
+            BlobRepository blobRepository,
+            FileRepository fileRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${storage.location:data/uploads}") String storagePath,
+            @Value("${storage.gc.batch-size:500}") int batchSize,
+            @Value("${storage.gc.max-items-per-second:1000}") int maxItemsPerSecond,
+            @Value("${storage.gc.grace-minutes:60}") long graceMinutes) {
+        this.blobStore = blobStore;
+        this.blobRepository = blobRepository;
+        this.fileRepository = fileRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.rootDir = Paths.get(storagePath);
+        this.batchSize = batchSize;
+        this.maxItemsPerSecond = maxItemsPerSecond;
+        this.graceMinutes = graceMinutes;
+    }
+
+    @Scheduled(initialDelayString = "${storage.gc.initial-delay-ms:300000}",
+            fixedDelayString = "${storage.gc.interval-ms:21600000}")
+    public void collect() {
+        try {
+            int orphans = removeOrphanBlobs();
+            int legacyOrphans = removeOrphanLegacyFiles();
+            int missing = flagMissingBlobs() + flagMissingLegacyFiles();
+            if (orphans + legacyOrphans + missing > 0) {
+                System.out.println("Recolector de almacenamiento: " + (orphans + legacyOrphans)
+                        + " blobs huérfanos eliminados, " + missing + " archivos sin contenido marcados");
+            }
+        } catch (IOException e) {
+            System.err.println("Error en el recolector de almacenamiento: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // -------------------- 1. BLOBS SIN METADATOS --------------------
+
+    private int removeOrphanBlobs() throws IOException, InterruptedException {
+        Instant cutoff = Instant.now().minusSeconds(TimeUnit.MINUTES.toSeconds(graceMinutes));
+        int removed = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+
+        // Files.walk es perezoso: no se cargan en memoria todas las rutas del árbol
+        try (Stream<Path> paths = Files.walk(blobStore.getBlobDir())) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (isOlderThan(path, cutoff)) {
+                    batch.add(path.getFileName().toString());
+                }
+                if (batch.size() == batchSize) {
+                    removed += removeMissingFromDatabase(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += removeMissingFromDatabase(batch);
+        }
+        return removed;
+    }
+
+    private int removeMissingFromDatabase(List<String> hashes) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Set<String> known = new HashSet<>(blobRepository.findExistingHashes(hashes));
+        int removed = 0;
+        for (String hash : hashes) {
+            if (!known.contains(hash) && blobStore.deleteIfOrphan(hash)) {
+                removed++;
+            }
+        }
+        throttle(hashes.size(), start);
+        return removed;
+    }
+
+    /**
+     * Archivos sueltos en la raíz (formato anterior, UUID_nombre) que ya no tienen File. Se comparan por
+     * nombre de archivo con File.filename, no por la ruta guardada (que depende de cómo se configuró
+     * storage.location al subirlos).
+     */
+    private int removeOrphanLegacyFiles() throws IOException, InterruptedException {
+        Instant cutoff = Instant.now().minusSeconds(TimeUnit.MINUTES.toSeconds(graceMinutes));
+        int removed = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(rootDir, Files::isRegularFile)) {
+            for (Path path : entries) {
+                if (isOlderThan(path, cutoff)) {
+                    batch.add(path.getFileName().toString());
+                }
+                if (batch.size() == batchSize) {
+                    removed += removeUnknownLegacyFiles(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            removed += removeUnknownLegacyFiles(batch);
+        }
+        return removed;
+    }
+
+    private int removeUnknownLegacyFiles(List<String> filenames) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Set<String> known = new HashSet<>(fileRepository.findExistingFilenames(filenames));
+        int removed = 0;
+        for (String filename : filenames) {
+            if (!known.contains(filename) && Files.deleteIfExists(rootDir.resolve(filename))) {
+                removed++;
+            }
+        }
+        throttle(filenames.size(), start);
+        return removed;
+    }
+
+    // -------------------- 2. METADATOS SIN CONTENIDO --------------------
+
+    private int flagMissingBlobs() throws InterruptedException {
+        int flagged = 0;
+        String lastHash = "";
+        while (true) {
+            long start = System.nanoTime();
+            List<Blob> blobs = blobRepository.findByHashGreaterThanOrderByHashAsc(lastHash, PageRequest.of(0, batchSize));
+            if (blobs.isEmpty()) {
+                return flagged;
+            }
+            for (Blob blob : blobs) {
+                boolean missing = !Files.exists(blobStore.pathFor(blob.getHash()));
+                Integer updated = transaction.execute(status ->
+                        fileRepository.markMissingByBlobHash(blob.getHash(), missing));
+                if (missing && updated != null) {
+                    flagged += updated;
+                }
+            }
+            lastHash = blobs.get(blobs.size() - 1).getHash();
+            throttle(blobs.size(), start);
+        }
+    }
+
+    private int flagMissingLegacyFiles() throws InterruptedException {
+        int flagged = 0;
+        long lastId = 0;
+        while (true) {
+            long start = System.nanoTime();
+            List<File> files = fileRepository.findByBlobIsNullAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            if (files.isEmpty()) {
+                return flagged;
+            }
+            for (File file : files) {
+                boolean missing = !Files.exists(Paths.get(file.getPath()));
+                if (!Boolean.valueOf(missing).equals(file.getMissing())) {
+                    file.setMissing(missing);
+                    fileRepository.save(file);
+                }
+                if (missing) {
+                    flagged++;
+                }
+            }
+            lastId = files.get(files.size() - 1).getId();
+            throttle(files.size(), start);
+        }
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static boolean isOlderThan(Path path, Instant cutoff) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return attrs.isRegularFile() && attrs.lastModifiedTime().toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Duerme lo necesario para que el lote no supere maxItemsPerSecond.
+     */
+    private void throttle(int items, long startNanos) throws InterruptedException {
+        long minNanos = TimeUnit.SECONDS.toNanos(items) / Math.max(1, maxItemsPerSecond);
+        long elapsed = System.nanoTime() - startNanos;
+        if (elapsed < minNanos) {
+            TimeUnit.NANOSECONDS.sleep(minNanos - elapsed);
+        }
+    }
+}
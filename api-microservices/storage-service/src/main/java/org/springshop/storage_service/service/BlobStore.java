@@ -0,0 +1,186 @@
+package org.springshop.storage_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springshop.storage_service.model.Blob;
+import org.springshop.storage_service.repository.BlobRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Almacenamiento direccionado por contenido: cada contenido distinto se guarda una sola vez en
+ * blobs/ab/cd/abcd..., donde el nombre es su SHA-256.
+ *
+ * Las altas y bajas de un mismo hash se serializan con un lock por franja y se confirman en su propia
+ * transacción, de modo que el contador de referencias y el archivo en disco no se desincronizan entre
+ * subidas y borrados concurrentes del mismo contenido.
+ */
+@Service
+public class BlobStore {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path blobDir;
+    private final Path tmpDir;
+    private final BlobRepository blobRepository;
+    private final TransactionTemplate blobTransaction;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public BlobStore(@Value("${storage.location:data/uploads}") String storagePath,
+            BlobRepository blobRepository,
+            PlatformTransactionManager transactionManager) throws IOException {
+        Path rootDir = Paths.get(storagePath);
+        this.blobDir = rootDir.resolve("blobs");
+        this.tmpDir = rootDir.resolve("tmp");
+        this.blobRepository = blobRepository;
+        this.blobTransaction = new TransactionTemplate(transactionManager);
+        this.blobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        Files.createDirectories(blobDir);
+        Files.createDirectories(tmpDir);
+    }
+
+    /**
+     * Copia el flujo a un temporal calculando su SHA-256 por el camino y registra una referencia al blob.
+     * Si el contenido ya existía, el temporal se descarta.
+     */
+    public Blob store(InputStream content) throws IOException {
+        Path temp = newTempFile();
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream in = new DigestInputStream(content, digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return acquire(HexFormat.of().formatHex(digest.digest()), temp, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Registra una referencia a un contenido ya escrito en un temporal (con su hash calculado).
+     * El temporal se mueve a su ruta definitiva solo si el blob es nuevo.
+     */
+    public Blob acquire(String hash, Path temp, long size) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            return blobTransaction.execute(status -> {
+                if (blobRepository.addToRefCount(hash, 1) > 0) {
+                    return blobRepository.findById(hash).orElseThrow();
+                }
+                Path target = pathFor(hash);
+                try {
+                    Files.createDirectories(target.getParent());
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not store blob " + hash, e);
+                }
+                Blob blob = new Blob();
+                blob.setHash(hash);
+                blob.setSize(size);
+                blob.setPath(target.toString());
+                blob.setRefCount(1);
+                return blobRepository.save(blob);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Suelta una referencia. Cuando llega a cero se eliminan la fila y el archivo en disco.
+     */
+    public void release(String hash) {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            Boolean unreferenced = blobTransaction.execute(status -> {
+                blobRepository.addToRefCount(hash, -1);
+                return blobRepository.deleteIfUnreferenced(hash) > 0;
+            });
+            if (Boolean.TRUE.equals(unreferenced)) {
+                Files.deleteIfExists(pathFor(hash));
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el blob " + hash + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve la referencia adquirida para un File que no llegó a confirmarse (la transacción falló en
+     * cualquier punto, también antes de crear el File). Un error al devolverla no oculta el original.
+     */
+    public void releaseAfterFailure(String hash, Throwable failure) {
+        try {
+            release(hash);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Borra del disco un blob sin fila en la base de datos. Se vuelve a comprobar bajo el lock
+     * para no competir con una subida del mismo contenido.
+     */
+    public boolean deleteIfOrphan(String hash) throws IOException {
+        ReentrantLock lock = lockFor(hash);
+        lock.lock();
+        try {
+            if (blobRepository.existsById(hash)) {
+                return false;
+            }
+            return Files.deleteIfExists(pathFor(hash));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path getBlobDir() {
+        return blobDir;
+    }
+
+    public Path newTempFile() {
+        return tmpDir.resolve(UUID.randomUUID() + ".upload");
+    }
+
+    public Path tempPath(String name) {
+        return tmpDir.resolve(name);
+    }
+
+    /**
+     * Ruta con doble nivel de reparto (ab/cd/) para que ningún directorio acumule millones de entradas.
+     */
+    public Path pathFor(String hash) {
+        return blobDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private ReentrantLock lockFor(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+}
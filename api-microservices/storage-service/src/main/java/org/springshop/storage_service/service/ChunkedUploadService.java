@@ -0,0 +1,296 @@
+package org.springshop.storage_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springshop.storage_service.dto.upload.UploadSessionRequest;
+import org.springshop.storage_service.dto.upload.UploadSessionResponse;
+import org.springshop.storage_service.model.Blob;
+import org.springshop.storage_service.model.File;
+import org.springshop.storage_service.model.UploadSession;
+import org.springshop.storage_service.repository.UploadSessionRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Subidas por partes reanudables: iniciar, enviar la parte N y completar.
+ *
+ * Cada parte se escribe directamente sobre un temporal con un buffer fijo (la memoria no depende del
+ * tamaño del archivo) y se verifica contra el SHA-256 enviado por el cliente; si no coincide, el temporal
+ * se recorta al final de la parte anterior. Al completar, el temporal pasa al almacenamiento por contenido
+ * con un movimiento atómico.
+ *
+ * La transmisión de una parte no retiene transacción ni conexión: las escrituras sobre una misma sesión
+ * se serializan con un lock por franja y la sesión avanza al final con un UPDATE condicionado a la parte
+ * esperada, en una transacción corta.
+ */
+@Service
+@Transactional
+public class ChunkedUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int LOCK_STRIPES = 64;
+
+    private final UploadSessionRepository sessionRepository;
+    private final BlobStore blobStore;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate sessionTransaction;
+    private final long maxChunkBytes;
+    private final long maxFileBytes;
+    private final long sessionTtlMinutes;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    public ChunkedUploadService(UploadSessionRepository sessionRepository,
+            BlobStore blobStore,
+            FileStorageService fileStorageService,
+            PlatformTransactionManager transactionManager,
+            @Value("${storage.upload.max-chunk-mb:16}") long maxChunkMb,
+            @Value("${storage.upload.max-file-mb:1024}") long maxFileMb,
+            @Value("${storage.upload.session-ttl-minutes:1440}") long sessionTtlMinutes) {
+        this.sessionRepository = sessionRepository;
+        this.blobStore = blobStore;
+        this.fileStorageService = fileStorageService;
+        this.sessionTransaction = new TransactionTemplate(transactionManager);
+        this.maxChunkBytes = maxChunkMb * 1024 * 1024;
+        this.maxFileBytes = maxFileMb * 1024 * 1024;
+        this.sessionTtlMinutes = sessionTtlMinutes;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public UploadSessionResponse initiate(UploadSessionRequest request) {
+        if (request.getOriginalName() == null || request.getOriginalName().isBlank()) {
+            throw new IllegalArgumentException("originalName is required");
+        }
+        if (request.getTotalSize() == null || request.getTotalSize() <= 0) {
+            throw new IllegalArgumentException("totalSize is required and must be greater than 0");
+        }
+        if (request.getTotalSize() > maxFileBytes) {
+            throw new IllegalArgumentException("totalSize exceeds the maximum file size of " + maxFileBytes + " bytes");
+        }
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setOriginalName(request.getOriginalName());
+        session.setContentType(request.getContentType());
+        session.setTotalSize(request.getTotalSize());
+        return UploadSessionResponse.from(sessionRepository.save(session));
+    }
+
+    public UploadSessionResponse getSession(String uploadId) {
+        return UploadSessionResponse.from(findSessionOrThrow(uploadId));
+    }
+
+    /**
+     * Añade la parte indicada. Las partes van en orden; reenviar una ya recibida no tiene efecto,
+     * para que el cliente pueda reintentar sin consultar antes el estado.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public UploadSessionResponse uploadPart(String uploadId, int partNumber, String checksum, InputStream body)
+            throws IOException {
+        if (checksum == null || checksum.isBlank()) {
+            throw new IllegalArgumentException("Chunk SHA-256 checksum is required");
+        }
+        ReentrantLock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            UploadSession session = findSessionOrThrow(uploadId);
+
+            if (partNumber < session.getNextPart()) {
+                return UploadSessionResponse.from(session);
+            }
+            if (partNumber > session.getNextPart()) {
+                throw new IllegalStateException("Expected part " + session.getNextPart() + " but received " + partNumber);
+            }
+
+            long offset = session.getReceivedBytes();
+            long remaining = declaredSizeOf(session) - offset;
+            if (remaining <= 0) {
+                throw new IllegalStateException("All " + offset + " declared bytes have already been received");
+            }
+            long written = writePart(uploadId, partNumber, checksum, body, offset, Math.min(maxChunkBytes, remaining));
+
+            Integer advanced = sessionTransaction.execute(status -> sessionRepository.advance(
+                    uploadId, partNumber, offset + written, LocalDateTime.now()));
+            if (advanced == null || advanced == 0) {
+                throw new IllegalStateException("Upload session " + uploadId + " changed while part " + partNumber
+                        + " was being written");
+            }
+            return UploadSessionResponse.from(findSessionOrThrow(uploadId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cierra la subida: calcula el hash del temporal, lo registra como blob y crea el File.
+     *
+     * @param expectedSha256 hash del archivo completo (opcional) para verificar el ensamblado
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public File complete(String uploadId, String expectedSha256) throws IOException {
+        ReentrantLock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            UploadSession session = findSessionOrThrow(uploadId);
+            long receivedBytes = session.getReceivedBytes();
+
+            if (receivedBytes == 0) {
+                throw new IllegalStateException("No parts have been uploaded");
+            }
+            if (session.getTotalSize() != null && receivedBytes != session.getTotalSize()) {
+                throw new IllegalStateException("Received " + receivedBytes + " of " + session.getTotalSize() + " bytes");
+            }
+
+            // El hash del archivo completo se calcula sin transacción abierta
+            Path temp = tempFileOf(uploadId);
+            MessageDigest digest = BlobStore.sha256();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(temp), digest)) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            if (expectedSha256 != null && !expectedSha256.isBlank() && !hash.equalsIgnoreCase(expectedSha256.trim())) {
+                throw new IllegalArgumentException("File checksum does not match");
+            }
+
+            Blob blob = blobStore.acquire(hash, temp, receivedBytes);
+            // Desde aquí la referencia contada es nuestra: si no se confirma el File, se devuelve
+            try {
+                Files.deleteIfExists(temp);
+                return sessionTransaction.execute(status -> {
+                    UploadSession locked = sessionRepository.findByIdForUpdate(uploadId)
+                            .filter(current -> current.getReceivedBytes() == receivedBytes)
+                            .orElseThrow(() -> new IllegalStateException("Upload session " + uploadId
+                                    + " changed while it was being completed"));
+                    File file = fileStorageService.createFile(locked.getOriginalName(), locked.getContentType(), blob);
+                    sessionRepository.delete(locked);
+                    return file;
+                });
+            } catch (IOException | RuntimeException | Error e) {
+                blobStore.releaseAfterFailure(hash, e);
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void abort(String uploadId) throws IOException {
+        ReentrantLock lock = lockFor(uploadId);
+        lock.lock();
+        try {
+            UploadSession session = findSessionOrThrow(uploadId);
+            sessionRepository.delete(session);
+            Files.deleteIfExists(tempFileOf(uploadId));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina las sesiones sin actividad durante storage.upload.session-ttl-minutes y sus temporales.
+     */
+    @Scheduled(fixedDelayString = "${storage.upload.cleanup-interval-ms:3600000}")
+    public void purgeAbandonedSessions() {
+        List<UploadSession> abandoned = sessionRepository.findByUpdatedAtBefore(
+                LocalDateTime.now().minusMinutes(sessionTtlMinutes));
+        for (UploadSession session : abandoned) {
+            sessionRepository.delete(session);
+            try {
+                Files.deleteIfExists(tempFileOf(session.getId()));
+            } catch (IOException e) {
+                System.err.println("No se pudo borrar el temporal de la subida " + session.getId() + ": " + e.getMessage());
+            }
+        }
+        if (!abandoned.isEmpty()) {
+            System.out.println("Subidas abandonadas eliminadas: " + abandoned.size());
+        }
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    /**
+     * Escribe la parte a partir de offset verificando su SHA-256. Se rechaza en cuanto supera maxBytes
+     * (el tope de parte o lo que falta del totalSize declarado); ante cualquier error el temporal se recorta
+     * al final de la parte anterior.
+     * @return Bytes escritos.
+     */
+    private long writePart(String uploadId, int partNumber, String checksum, InputStream body,
+            long offset, long maxBytes) throws IOException {
+        long written = 0;
+        MessageDigest digest = BlobStore.sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        try (ReadableByteChannel in = Channels.newChannel(body);
+                FileChannel out = FileChannel.open(tempFileOf(uploadId),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Descarta lo que haya quedado de un intento anterior interrumpido
+            out.truncate(offset);
+            out.position(offset);
+
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                written += buffer.remaining();
+                if (written > maxBytes) {
+                    out.truncate(offset);
+                    throw new IllegalArgumentException("Chunk " + partNumber + " exceeds the " + maxBytes
+                            + " bytes allowed (chunk limit or remaining totalSize)");
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (written == 0 || !actual.equalsIgnoreCase(checksum.trim())) {
+                out.truncate(offset);
+                throw new IllegalArgumentException("Chunk " + partNumber + " is empty or its checksum does not match");
+            }
+            // La sesión solo avanza cuando la parte está en disco
+            out.force(false);
+        }
+        return written;
+    }
+
+    // Sesiones creadas antes de que totalSize fuera obligatorio: se limitan al tamaño máximo de archivo
+    private long declaredSizeOf(UploadSession session) {
+        return session.getTotalSize() != null ? session.getTotalSize() : maxFileBytes;
+    }
+
+    private ReentrantLock lockFor(String uploadId) {
+        return locks[Math.floorMod(uploadId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private UploadSession findSessionOrThrow(String uploadId) {
+        return sessionRepository.findById(uploadId)
+                .orElseThrow(() -> new EntityNotFoundException("Upload session not found with id: " + uploadId));
+    }
+
+    private Path tempFileOf(String uploadId) {
+        // El id se genera en el servidor (UUID); se valida para no salir del directorio temporal
+        return blobStore.tempPath(UUID.fromString(uploadId) + ".part");
+    }
+}
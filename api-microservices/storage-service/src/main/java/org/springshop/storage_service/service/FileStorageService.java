@@ -2,17 +2,28 @@ package org.springshop.storage_service.service;
 
 import org.springframework.stereotype.Service;
 
+import org.springshop.storage_service.dto.file.CursorPage;
+import org.springshop.storage_service.model.Blob;
 import org.springshop.storage_service.model.File;
 import org.springshop.storage_service.repository.FileRepository;
 
 import jakarta.transaction.Transactional;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.*;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -21,44 +32,96 @@ public class FileStorageService {
 
     private final Path rootDir;
     private final FileRepository fileRepository;
+    private final BlobStore blobStore;
+    private final TransactionTemplate fileTransaction;
 
     public FileStorageService(
             @Value("${storage.location:data/uploads}") String storagePath,
-            FileRepository fileRepository) throws IOException {
+            FileRepository fileRepository,
+            BlobStore blobStore,
+            PlatformTransactionManager transactionManager) throws IOException {
         this.rootDir = Paths.get(storagePath);
         this.fileRepository = fileRepository;
+        this.blobStore = blobStore;
+        this.fileTransaction = new TransactionTemplate(transactionManager);
         Files.createDirectories(rootDir);
     }
 
+    /**
+     * Sin transacción mientras se copia el contenido: el blob se registra en la suya propia y solo
+     * la creación del File abre otra, corta.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public File saveFile(MultipartFile file) throws IOException {
-        String filename = UUID.randomUUID() + "_" + file.getOriginalFilename();
-        Path filePath = rootDir.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        Blob blob = blobStore.store(file.getInputStream());
+        try {
+            return fileTransaction.execute(status -> createFile(file.getOriginalFilename(), file.getContentType(), blob));
+        } catch (RuntimeException | Error e) {
+            blobStore.releaseAfterFailure(blob.getHash(), e);
+            throw e;
+        }
+    }
 
+    /**
+     * Crea el File que referencia un blob ya registrado (con su referencia ya contada).
+     * Si la transacción no se confirma, quien llama devuelve la referencia (BlobStore.releaseAfterFailure).
+     */
+    public File createFile(String originalName, String contentType, Blob blob) {
         File entity = new File();
-        entity.setFilename(filename);
-        entity.setOriginalName(file.getOriginalFilename());
-        entity.setContentType(file.getContentType());
-        entity.setSize(file.getSize());
-        entity.setPath(filePath.toString());
+        entity.setFilename(UUID.randomUUID() + "_" + originalName);
+        entity.setOriginalName(originalName);
+        entity.setContentType(contentType);
+        entity.setSize(blob.getSize());
+        entity.setPath(blob.getPath());
+        entity.setBlob(blob);
 
         return fileRepository.save(entity);
     }
 
-    public byte[] getFile(String filename) throws IOException {
-        Path path = rootDir.resolve(filename);
-        return Files.readAllBytes(path);
+    public Optional<File> findFile(String filename) {
+        return fileRepository.findByFilename(filename);
+    }
+
+    /**
+     * Recurso sobre el archivo en disco. No carga el contenido: se lee por bloques al escribir la respuesta,
+     * así que la memoria usada no depende del tamaño del archivo.
+     */
+    public Resource getFileResource(File file) throws IOException {
+        Resource resource = new FileSystemResource(Paths.get(file.getPath()));
+        if (!resource.isReadable()) {
+            throw new FileNotFoundException("Stored file missing on disk: " + file.getFilename());
+        }
+        return resource;
     }
 
-    public List<File> getAllFiles() {
-        return fileRepository.findAll();
+    public CursorPage<File> getFilePage(String contentType, Long cursor, Integer size) {
+        int pageSize = CursorPage.pageSize(size);
+        long before = cursor != null ? cursor : Long.MAX_VALUE;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+        // Una consulta por forma, sin predicados "IS NULL OR" que impiden elegir el índice
+        List<File> rows = contentType == null || contentType.isBlank()
+                ? fileRepository.findPage(before, limit)
+                : fileRepository.findPageByContentType(contentType, before, limit);
+        return CursorPage.of(rows, pageSize, File::getId);
     }
 
     public void deleteFile(String filename) throws IOException {
         File file = fileRepository.findByFilename(filename)
                 .orElseThrow(() -> new RuntimeException("File not found"));
-        Files.deleteIfExists(Paths.get(file.getPath()));
+        String hash = file.getContentHash();
         fileRepository.deleteByFilename(filename);
+
+        if (hash == null) {
+            // Archivo anterior al almacenamiento por contenido: no se comparte con nadie
+            Files.deleteIfExists(Paths.get(file.getPath()));
+            return;
+        }
+        // La referencia al blob se suelta solo si el borrado de la fila se confirma
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                blobStore.release(hash);
+            }
+        });
     }
 }
-
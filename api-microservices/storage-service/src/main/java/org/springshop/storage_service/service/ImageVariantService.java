@@ -0,0 +1,268 @@
+package org.springshop.storage_service.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springshop.storage_service.model.File;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Variantes redimensionadas de imágenes almacenadas, generadas bajo demanda y guardadas en una caché
+ * en disco (variants/) con un presupuesto de tamaño. Cada acceso actualiza la fecha de modificación del
+ * archivo y, al superar el presupuesto, se eliminan primero las variantes menos usadas (LRU).
+ *
+ * Las peticiones simultáneas de la misma variante comparten un único trabajo de redimensionado.
+ * Antes de decodificar se leen las dimensiones de la cabecera: las imágenes que superan el presupuesto
+ * de píxeles se rechazan sin reservar memoria para ellas.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Set<String> FORMATS = Set.of("jpg", "png");
+
+    private final Path variantDir;
+    private final long maxBytes;
+    private final int maxDimension;
+    private final long maxSourcePixels;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageVariantService(@Value("${storage.location:data/uploads}") String storagePath,
+            @Value("${storage.variants.max-size-mb:512}") long maxSizeMb,
+            @Value("${storage.variants.max-dimension:2048}") int maxDimension,
+            @Value("${storage.variants.max-source-megapixels:50}") long maxSourceMegapixels) throws IOException {
+        this.variantDir = Paths.get(storagePath).resolve("variants");
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.maxDimension = maxDimension;
+        this.maxSourcePixels = maxSourceMegapixels * 1_000_000;
+        Files.createDirectories(variantDir);
+        usedBytes.set(currentSize());
+    }
+
+    /**
+     * Devuelve la ruta de la variante pedida, generándola si aún no existe.
+     *
+     * @throws IllegalArgumentException si los parámetros no son válidos o el archivo no es una imagen
+     */
+    public Path getVariant(File file, Integer width, Integer height, String format) throws IOException {
+        String fmt = resolveFormat(file, format);
+        validateDimension(width, "w");
+        validateDimension(height, "h");
+
+        String key = variantKey(file, width, height, fmt);
+        Path target = variantDir.resolve(key.substring(0, 2)).resolve(key);
+
+        if (Files.exists(target)) {
+            touch(target);
+            return target;
+        }
+
+        CompletableFuture<Path> job = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, job);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            job.complete(render(Paths.get(file.getPath()), target, width, height, fmt));
+        } catch (RuntimeException | IOException e) {
+            job.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, job);
+        }
+        evictIfOverBudget();
+        return await(job);
+    }
+
+    public static String mediaTypeOf(String format) {
+        return "png".equals(format) ? "image/png" : "image/jpeg";
+    }
+
+    public String resolveFormat(File file, String format) {
+        if (format == null || format.isBlank()) {
+            return "image/png".equals(file.getContentType()) ? "png" : "jpg";
+        }
+        String fmt = format.toLowerCase();
+        if (fmt.equals("jpeg")) {
+            fmt = "jpg";
+        }
+        if (!FORMATS.contains(fmt)) {
+            throw new IllegalArgumentException("Unsupported format: " + format + " (use jpg or png)");
+        }
+        return fmt;
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private void validateDimension(Integer value, String name) {
+        if (value != null && (value < 1 || value > maxDimension)) {
+            throw new IllegalArgumentException(name + " must be between 1 and " + maxDimension);
+        }
+    }
+
+    private static String variantKey(File file, Integer width, Integer height, String fmt) {
+        // El hash del contenido permite compartir variantes entre archivos con el mismo contenido
+        String source = file.getContentHash() != null ? file.getContentHash() : file.getFilename();
+        return source + "_" + (width != null ? width : "") + "x" + (height != null ? height : "") + "." + fmt;
+    }
+
+    private Path render(Path source, Path target, Integer width, Integer height, String fmt) throws IOException {
+        BufferedImage original = readImage(source);
+
+        double scale = 1.0;
+        if (width != null) {
+            scale = Math.min(scale, width / (double) original.getWidth());
+        }
+        if (height != null) {
+            scale = Math.min(scale, height / (double) original.getHeight());
+        }
+        // Nunca se amplía: se mantiene la proporción y se encaja en w x h
+        int targetWidth = Math.max(1, (int) Math.round(original.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(original.getHeight() * scale));
+
+        int type = fmt.equals("png") ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight, type);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                // jpg no tiene canal alfa: las zonas transparentes quedarían negras
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, targetWidth, targetHeight);
+            }
+            g.drawImage(original, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(UUID.randomUUID() + ".tmp");
+        try {
+            ImageIO.write(resized, fmt, temp.toFile());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        usedBytes.addAndGet(Files.size(target));
+        return target;
+    }
+
+    /**
+     * Decodifica la imagen tras comprobar en la cabecera que ancho x alto cabe en el presupuesto de píxeles,
+     * para que un archivo pequeño que declara dimensiones enormes no agote la memoria.
+     */
+    private BufferedImage readImage(Path source) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("File is not a supported image");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IllegalArgumentException("Image exceeds the maximum of " + maxSourcePixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> job) throws IOException {
+        try {
+            return job.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Solo afecta al orden de expulsión
+        }
+    }
+
+    /**
+     * Borra las variantes menos usadas hasta quedar en el 90% del presupuesto. Solo un hilo expulsa a la vez.
+     */
+    private void evictIfOverBudget() {
+        if (usedBytes.get() <= maxBytes || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Variant> variants = new ArrayList<>();
+            try (Stream<Path> paths = Files.walk(variantDir)) {
+                paths.filter(p -> p.toString().endsWith(".jpg") || p.toString().endsWith(".png"))
+                        .forEach(p -> {
+                            try {
+                                BasicFileAttributes attrs = Files.readAttributes(p, BasicFileAttributes.class);
+                                variants.add(new Variant(p, attrs.size(), attrs.lastModifiedTime()));
+                            } catch (IOException e) {
+                                // Borrada mientras se recorría
+                            }
+                        });
+            }
+            long total = variants.stream().mapToLong(Variant::size).sum();
+            long goal = maxBytes * 9 / 10;
+            variants.sort(Comparator.comparing(Variant::lastUsed));
+            for (Variant variant : variants) {
+                if (total <= goal) {
+                    break;
+                }
+                if (Files.deleteIfExists(variant.path())) {
+                    total -= variant.size();
+                }
+            }
+            usedBytes.set(total);
+        } catch (IOException e) {
+            System.err.println("No se pudo limpiar la caché de variantes: " + e.getMessage());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private long currentSize() throws IOException {
+        try (Stream<Path> paths = Files.walk(variantDir)) {
+            return paths.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+
+    private record Variant(Path path, long size, FileTime lastUsed) {
+    }
+}
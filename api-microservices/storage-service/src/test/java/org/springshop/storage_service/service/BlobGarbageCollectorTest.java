@@ -0,0 +1,136 @@
+package org.springshop.storage_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.storage_service.model.Blob;
+import org.springshop.storage_service.model.File;
+import org.springshop.storage_service.repository.BlobRepository;
+import org.springshop.storage_service.repository.FileRepository;
+
+// El recolector solo borra contenido sin fila y más antiguo que el periodo de gracia
+@DataJpaTest
+// El recolector confirma cada lote en su propia transacción: el test no abre una envolvente
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobGarbageCollectorTest {
+
+    private static final long GRACE_MINUTES = 60;
+    private static final Instant OLD = Instant.now().minus(Duration.ofHours(3));
+
+    @TempDir
+    Path storage;
+
+    @Autowired
+    private BlobRepository blobRepository;
+    @Autowired
+    private FileRepository fileRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlobStore blobStore;
+    private BlobGarbageCollector collector;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileRepository.deleteAll();
+        blobRepository.deleteAll();
+        blobStore = new BlobStore(storage.toString(), blobRepository, transactionManager);
+        // Lotes de 2 para recorrer varios lotes con pocos archivos
+        collector = new BlobGarbageCollector(blobStore, blobRepository, fileRepository, transactionManager,
+                storage.toString(), 2, 100_000, GRACE_MINUTES);
+    }
+
+    @Test
+    void removesOldOrphanBlobsAndKeepsReferencedOrRecentOnes() throws IOException {
+        Path oldOrphan = writeBlob("huérfano antiguo", OLD);
+        Path referenced = writeBlob("referenciado", OLD);
+        saveBlobRow(referenced);
+        Path recentOrphan = writeBlob("subida en curso", Instant.now());
+
+        collector.collect();
+
+        assertThat(oldOrphan).doesNotExist();
+        assertThat(referenced).exists();
+        assertThat(recentOrphan).exists();
+    }
+
+    @Test
+    void removesOldLegacyFilesWithoutRowAndKeepsKnownOnes() throws IOException {
+        Path orphan = writeLegacyFile("1111_huerfano.txt", OLD);
+        Path known = writeLegacyFile("2222_conocido.txt", OLD);
+        saveLegacyFileRow(known);
+        Path recent = writeLegacyFile("3333_reciente.txt", Instant.now());
+
+        collector.collect();
+
+        assertThat(orphan).doesNotExist();
+        assertThat(known).exists();
+        assertThat(recent).exists();
+    }
+
+    @Test
+    void flagsFilesWhoseBlobIsMissingOnDisk() throws IOException {
+        Path referenced = writeBlob("borrado a mano", OLD);
+        Blob blob = saveBlobRow(referenced);
+        File file = new File();
+        file.setFilename("4444_perdido.txt");
+        file.setPath(referenced.toString());
+        file.setBlob(blob);
+        Long id = fileRepository.save(file).getId();
+        Files.delete(referenced);
+
+        collector.collect();
+
+        assertThat(fileRepository.findById(id)).get().extracting(File::getMissing).isEqualTo(true);
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private Path writeBlob(String content, Instant modifiedAt) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Path path = blobStore.pathFor(HexFormat.of().formatHex(BlobStore.sha256().digest(bytes)));
+        Files.createDirectories(path.getParent());
+        Files.write(path, bytes);
+        Files.setLastModifiedTime(path, FileTime.from(modifiedAt));
+        return path;
+    }
+
+    private Path writeLegacyFile(String filename, Instant modifiedAt) throws IOException {
+        Path path = storage.resolve(filename);
+        Files.writeString(path, filename);
+        Files.setLastModifiedTime(path, FileTime.from(modifiedAt));
+        return path;
+    }
+
+    private Blob saveBlobRow(Path path) throws IOException {
+        Blob blob = new Blob();
+        blob.setHash(path.getFileName().toString());
+        blob.setSize(Files.size(path));
+        blob.setPath(path.toString());
+        blob.setRefCount(1);
+        return blobRepository.save(blob);
+    }
+
+    private void saveLegacyFileRow(Path path) {
+        File file = new File();
+        file.setFilename(path.getFileName().toString());
+        file.setPath(path.toString());
+        fileRepository.save(file);
+    }
+}
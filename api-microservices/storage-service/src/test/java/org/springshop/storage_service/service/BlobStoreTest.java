@@ -0,0 +1,107 @@
+package org.springshop.storage_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springshop.storage_service.model.Blob;
+import org.springshop.storage_service.model.File;
+import org.springshop.storage_service.repository.BlobRepository;
+import org.springshop.storage_service.repository.FileRepository;
+
+// Subidas idénticas comparten un único blob; el archivo en disco vive mientras algún File lo referencie
+@DataJpaTest
+// BlobStore confirma en sus propias transacciones: el test no abre una envolvente
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobStoreTest {
+
+    @TempDir
+    Path storage;
+
+    @Autowired
+    private BlobRepository blobRepository;
+    @Autowired
+    private FileRepository fileRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlobStore blobStore;
+    private FileStorageService fileStorageService;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        fileRepository.deleteAll();
+        blobRepository.deleteAll();
+        blobStore = new BlobStore(storage.toString(), blobRepository, transactionManager);
+        fileStorageService = new FileStorageService(storage.toString(), fileRepository, blobStore, transactionManager);
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void identicalUploadsShareOneBlobUntilTheLastReferenceIsDeleted() throws IOException {
+        File first = fileStorageService.saveFile(upload("a.txt"));
+        File second = fileStorageService.saveFile(upload("b.txt"));
+
+        assertThat(first.getContentHash()).isEqualTo(second.getContentHash());
+        String hash = first.getContentHash();
+        Path onDisk = blobStore.pathFor(hash);
+        assertThat(blobRepository.count()).isEqualTo(1);
+        assertThat(refCountOf(hash)).isEqualTo(2);
+        assertThat(onDisk).exists();
+
+        delete(first.getFilename());
+        assertThat(refCountOf(hash)).isEqualTo(1);
+        assertThat(onDisk).exists();
+
+        delete(second.getFilename());
+        assertThat(blobRepository.findById(hash)).isEmpty();
+        assertThat(onDisk).doesNotExist();
+    }
+
+    @Test
+    void differentContentGetsItsOwnBlob() throws IOException {
+        File first = fileStorageService.saveFile(upload("a.txt"));
+        File other = fileStorageService.saveFile(new MockMultipartFile("file", "c.txt", "text/plain",
+                "otro contenido".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(other.getContentHash()).isNotEqualTo(first.getContentHash());
+        assertThat(blobRepository.count()).isEqualTo(2);
+        assertThat(blobStore.pathFor(first.getContentHash())).exists();
+        assertThat(blobStore.pathFor(other.getContentHash())).exists();
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private static MockMultipartFile upload(String name) {
+        return new MockMultipartFile("file", name, "text/plain", "mismo contenido".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int refCountOf(String hash) {
+        return blobRepository.findById(hash).map(Blob::getRefCount).orElseThrow();
+    }
+
+    // deleteFile suelta la referencia al confirmarse: necesita una transacción
+    private void delete(String filename) {
+        transaction.executeWithoutResult(status -> {
+            try {
+                fileStorageService.deleteFile(filename);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
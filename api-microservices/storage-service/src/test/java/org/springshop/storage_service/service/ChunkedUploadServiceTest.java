@@ -0,0 +1,162 @@
+package org.springshop.storage_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.storage_service.dto.upload.UploadSessionRequest;
+import org.springshop.storage_service.dto.upload.UploadSessionResponse;
+import org.springshop.storage_service.model.File;
+import org.springshop.storage_service.repository.BlobRepository;
+import org.springshop.storage_service.repository.FileRepository;
+import org.springshop.storage_service.repository.UploadSessionRepository;
+
+// Partes verificadas por SHA-256, reintentos idempotentes y la referencia al blob si complete falla
+@DataJpaTest
+// Las partes se escriben sin transacción y la sesión avanza en la suya: el test no abre una envolvente
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChunkedUploadServiceTest {
+
+    private static final byte[] PART_1 = "hola ".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PART_2 = "mundo".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path storage;
+
+    @Autowired
+    private UploadSessionRepository sessionRepository;
+    @Autowired
+    private BlobRepository blobRepository;
+    @Autowired
+    private FileRepository fileRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BlobStore blobStore;
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        sessionRepository.deleteAll();
+        fileRepository.deleteAll();
+        blobRepository.deleteAll();
+        blobStore = new BlobStore(storage.toString(), blobRepository, transactionManager);
+        fileStorageService = new FileStorageService(storage.toString(), fileRepository, blobStore, transactionManager);
+    }
+
+    @Test
+    void badChecksumTruncatesBackToThePreviousPart() throws IOException {
+        ChunkedUploadService uploads = service(fileStorageService);
+        String uploadId = initiate(uploads);
+        uploads.uploadPart(uploadId, 1, sha256(PART_1), new ByteArrayInputStream(PART_1));
+
+        assertThatThrownBy(() -> uploads.uploadPart(uploadId, 2, sha256(PART_1), new ByteArrayInputStream(PART_2)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        UploadSessionResponse session = uploads.getSession(uploadId);
+        assertThat(session.getNextPart()).isEqualTo(2);
+        assertThat(session.getReceivedBytes()).isEqualTo(PART_1.length);
+        assertThat(Files.size(tempFileOf(uploadId))).isEqualTo(PART_1.length);
+
+        // El reintento con el contenido correcto continúa desde el mismo offset
+        uploads.uploadPart(uploadId, 2, sha256(PART_2), new ByteArrayInputStream(PART_2));
+        assertThat(Files.readAllBytes(tempFileOf(uploadId))).isEqualTo(concat(PART_1, PART_2));
+    }
+
+    @Test
+    void resentPartIsANoOp() throws IOException {
+        ChunkedUploadService uploads = service(fileStorageService);
+        String uploadId = initiate(uploads);
+        uploads.uploadPart(uploadId, 1, sha256(PART_1), new ByteArrayInputStream(PART_1));
+
+        byte[] other = "otros".getBytes(StandardCharsets.UTF_8);
+        UploadSessionResponse resent = uploads.uploadPart(uploadId, 1, sha256(other), new ByteArrayInputStream(other));
+
+        assertThat(resent.getNextPart()).isEqualTo(2);
+        assertThat(resent.getReceivedBytes()).isEqualTo(PART_1.length);
+        assertThat(Files.readAllBytes(tempFileOf(uploadId))).isEqualTo(PART_1);
+    }
+
+    @Test
+    void completeStoresTheAssembledFileAsABlob() throws IOException {
+        ChunkedUploadService uploads = service(fileStorageService);
+        String uploadId = uploadBothParts(uploads);
+
+        File file = uploads.complete(uploadId, sha256(concat(PART_1, PART_2)));
+
+        assertThat(file.getContentHash()).isEqualTo(sha256(concat(PART_1, PART_2)));
+        assertThat(Files.readAllBytes(blobStore.pathFor(file.getContentHash()))).isEqualTo(concat(PART_1, PART_2));
+        assertThat(sessionRepository.findById(uploadId)).isEmpty();
+        assertThat(tempFileOf(uploadId)).doesNotExist();
+    }
+
+    @Test
+    void failedCompleteReleasesTheBlobReference() throws IOException {
+        FileStorageService failing = mock(FileStorageService.class);
+        when(failing.createFile(any(), any(), any())).thenThrow(new IllegalStateException("db down"));
+        ChunkedUploadService uploads = service(failing);
+        String uploadId = uploadBothParts(uploads);
+        String hash = sha256(concat(PART_1, PART_2));
+
+        assertThatThrownBy(() -> uploads.complete(uploadId, null)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(blobRepository.findById(hash)).isEmpty();
+        assertThat(blobStore.pathFor(hash)).doesNotExist();
+        assertThat(sessionRepository.findById(uploadId)).isPresent();
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    private ChunkedUploadService service(FileStorageService files) {
+        return new ChunkedUploadService(sessionRepository, blobStore, files, transactionManager, 16, 1024, 1440);
+    }
+
+    private static String initiate(ChunkedUploadService uploads) {
+        UploadSessionRequest request = new UploadSessionRequest();
+        request.setOriginalName("saludo.txt");
+        request.setContentType("text/plain");
+        request.setTotalSize((long) (PART_1.length + PART_2.length));
+        return uploads.initiate(request).getUploadId();
+    }
+
+    private static String uploadBothParts(ChunkedUploadService uploads) throws IOException {
+        String uploadId = initiate(uploads);
+        uploads.uploadPart(uploadId, 1, sha256(PART_1), new ByteArrayInputStream(PART_1));
+        uploads.uploadPart(uploadId, 2, sha256(PART_2), new ByteArrayInputStream(PART_2));
+        return uploadId;
+    }
+
+    private Path tempFileOf(String uploadId) {
+        return blobStore.tempPath(uploadId + ".part");
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static String sha256(byte[] content) {
+        MessageDigest digest = BlobStore.sha256();
+        return HexFormat.of().formatHex(digest.digest(content));
+    }
+}
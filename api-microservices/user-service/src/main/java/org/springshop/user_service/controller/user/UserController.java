@@ -37,8 +37,9 @@ public class UserController {
     }
     @GetMapping("/me")
     public ResponseEntity<UserResponse> getProfile(@RequestHeader(name = "X-Auth-Subject", required = false) String subject) { 
-        Optional<UserResponse> response = null;
-        if(subject != null) {
+        Optional<UserResponse> response = Optional.empty();
+        if (subject != null) {
+            // Búsqueda por subject: pasa por la caché de usuarios
             response = Optional.of(userService.getUserBySub(subject));
         }
         return wrapOrNotFound(response);
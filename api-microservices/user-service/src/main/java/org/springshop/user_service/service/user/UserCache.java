@@ -0,0 +1,121 @@
+package org.springshop.user_service.service.user;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springshop.user_service.dto.user.UserResponse;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Caché en memoria de usuarios por subject, para que /me, /me/sync y /subject/{userSub} no consulten
+ * la base de datos en cada llamada. Los subjects sin usuario también se guardan (entrada vacía) con un
+ * TTL más corto. Las entradas se invalidan con UserChangedEvent al confirmarse la transacción.
+ * <p>
+ * La caché es asíncrona para que el loader no corra dentro del lock de Caffeine (ver {@link #get}).
+ */
+@Component
+public class UserCache {
+
+    private final AsyncCache<String, Optional<UserResponse>> bySub;
+
+    public UserCache(MeterRegistry meterRegistry,
+            @Value("${user.cache.max-size:50000}") long maxSize,
+            @Value("${user.cache.ttl-seconds:600}") long ttlSeconds,
+            @Value("${user.cache.negative-ttl-seconds:30}") long negativeTtlSeconds) {
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        long negativeTtlNanos = Duration.ofSeconds(negativeTtlSeconds).toNanos();
+        this.bySub = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<UserResponse>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<UserResponse> value, long currentTime) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<UserResponse> value, long currentTime,
+                            long currentDuration) {
+                        return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<UserResponse> value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, bySub, "user.by-sub");
+    }
+
+    /**
+     * Devuelve el usuario desde la caché o lo carga con el loader (vacío si no existe, también cacheado).
+     * <p>
+     * El loader corre en el hilo que llama (y en su transacción), fuera del lock de Caffeine: un
+     * get(key, loader) síncrono lo ejecutaría dentro de ConcurrentHashMap.compute, un bloque
+     * synchronized que en Java 21 ancla el hilo virtual a su carrier durante la consulta. Aquí solo
+     * se instala un future vacío y las llamadas concurrentes por el mismo subject lo esperan.
+     */
+    public Optional<UserResponse> get(String sub, Function<String, Optional<UserResponse>> loader) {
+        CompletableFuture<Optional<UserResponse>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<UserResponse>> future = bySub.get(sub, (key, executor) -> created);
+        if (future != created) {
+            return join(future).map(UserCache::copy);
+        }
+        try {
+            Optional<UserResponse> loaded = loader.apply(sub);
+            created.complete(loaded);
+            return loaded.map(UserCache::copy);
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Solo entradas positivas: una entrada vacía no se devuelve, para que syncUser pueda crear el usuario.
+     */
+    public Optional<UserResponse> getIfKnown(String sub) {
+        Optional<UserResponse> cached = bySub.synchronous().getIfPresent(sub);
+        return cached != null ? cached.map(UserCache::copy) : Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        bySub.synchronous().invalidate(event.sub());
+    }
+
+    // Propaga la excepción original del loader en lugar de la CompletionException
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // Copia para no exponer (ni mutar) la instancia guardada en la caché
+    private static UserResponse copy(UserResponse cached) {
+        UserResponse copy = new UserResponse();
+        copy.setId(cached.getId());
+        copy.setSub(cached.getSub());
+        copy.setUsername(cached.getUsername());
+        return copy;
+    }
+}
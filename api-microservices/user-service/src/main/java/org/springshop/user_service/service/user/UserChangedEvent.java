@@ -0,0 +1,7 @@
+package org.springshop.user_service.service.user;
+
+/**
+ * Se publica cuando se crea o modifica un usuario; la caché por subject lo invalida al confirmarse la transacción.
+ */
+public record UserChangedEvent(String sub) {
+}
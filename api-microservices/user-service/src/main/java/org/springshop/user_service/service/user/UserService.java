@@ -1,5 +1,6 @@
 package org.springshop.user_service.service.user;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional; // Importante
 import org.springshop.user_service.dto.user.UserResponse;
@@ -16,12 +17,22 @@ import jakarta.persistence.EntityNotFoundException; // Para manejo de 404
 public class UserService {
     
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserCache userCache, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.eventPublisher = eventPublisher;
     }
 
     public UserResponse syncUser(String sub) {
+        // Usuario ya conocido: no hace falta ir a la base de datos
+        Optional<UserResponse> known = userCache.getIfKnown(sub);
+        if (known.isPresent()) {
+            return known.get();
+        }
+
         // La lógica original usando orElseGet es concisa y correcta para esta operación
         User user = userRepository.findBySub(sub)
                 .orElseGet(() -> {
@@ -30,6 +41,8 @@ public class UserService {
                     newUser.setSub(sub);
                     // Lógica para inicializar el username, email, etc., si es posible desde el token
                     
+                    // La entrada (posiblemente vacía) de la caché se invalida al confirmar la creación
+                    eventPublisher.publishEvent(new UserChangedEvent(sub));
                     // Aseguramos que la creación y guardado ocurra dentro de esta transacción
                     return userRepository.save(newUser);
                 });
@@ -46,8 +59,8 @@ public class UserService {
     @Transactional(readOnly = true)
     public UserResponse getUserBySub(String sub) { // CONSISTENCIA: Devuelve Optional
         // CORRECCIÓN: Usamos Optional.map para transformar la entidad si existe
-        return userRepository.findBySub(sub)
-                .map(UserMapper::toResponseDTO).orElseThrow(() -> new EntityNotFoundException("User not found with subject: " + sub));
+        return userCache.get(sub, key -> userRepository.findBySub(key).map(UserMapper::toResponseDTO))
+                .orElseThrow(() -> new EntityNotFoundException("User not found with subject: " + sub));
     }
     
     /**
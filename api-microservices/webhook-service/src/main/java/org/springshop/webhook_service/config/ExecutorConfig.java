@@ -0,0 +1,20 @@
+package org.springshop.webhook_service.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Hilos virtuales para procesar en paralelo los eventos de la bandeja de entrada,
+     * cuyas llamadas HTTP a pagos, órdenes y envíos son bloqueantes.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService webhookInboxExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
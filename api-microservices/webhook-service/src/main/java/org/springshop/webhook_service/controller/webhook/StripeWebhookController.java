@@ -8,7 +8,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springshop.webhook_service.service.webhook.WebhookService;
+import org.springshop.webhook_service.service.webhook.WebhookInboxService;
 
 import java.util.Map;
 
@@ -16,13 +16,13 @@ import java.util.Map;
 @RequestMapping("/api/v2/webhooks")
 public class StripeWebhookController {
 
-    private final WebhookService webhookService;
+    private final WebhookInboxService webhookInboxService;
 
     @Value("${WEBHOOK_SECRET_KEY}")
     private String webhookSecret;
 
-    public StripeWebhookController(WebhookService webhookService) {
-        this.webhookService = webhookService;
+    public StripeWebhookController(WebhookInboxService webhookInboxService) {
+        this.webhookInboxService = webhookInboxService;
     }
 
     /**
@@ -51,14 +51,15 @@ public class StripeWebhookController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Payload de Stripe inválido."));
         }
 
-        // 2. PROCESAMIENTO DEL EVENTO (Delegado al servicio)
+        // 2. REGISTRO EN LA BANDEJA DE ENTRADA: el procesamiento es asíncrono (WebhookInboxWorker),
+        // así Stripe recibe su 200 OK sin depender de los servicios de pagos, órdenes y envíos.
         try {
-            webhookService.processEvent(event);
-            // Stripe espera un 200 OK en 30 segundos, de lo contrario, reintenta.
-            return ResponseEntity.ok(Map.of("status", "success"));
+            if (!webhookInboxService.enqueue(event, payload)) {
+                System.out.println("Evento de Stripe duplicado ignorado: " + event.getId());
+            }
+            return ResponseEntity.ok(Map.of("status", "received"));
         } catch (Exception e) {
-            // Si hay un error al procesar el evento (ej. error de DB),
-            // NO devolvemos 200 OK. Esto le indica a Stripe que reintente más tarde.
+            // Si no se pudo guardar el evento NO devolvemos 200 OK: Stripe lo reintentará más tarde.
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of("error", e.getMessage()));
         }
     }
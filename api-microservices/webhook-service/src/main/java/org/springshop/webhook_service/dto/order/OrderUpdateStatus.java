@@ -4,9 +4,20 @@ import org.springshop.webhook_service.model.order.OrderStatus;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class OrderUpdateStatus {
     private OrderStatus status;
+    // Datos del pago (solo al pasar a PAID): el servicio de órdenes los publica en su evento ORDER_PAID
+    private String transactionId;
+    private Double amount;
+    private String currency;
+    private String paymentMethod;
+
+    public OrderUpdateStatus(OrderStatus status) {
+        this.status = status;
+    }
 }
@@ -1,9 +0,0 @@
-package org.springshop.webhook_service.dto.payment;
-
-public enum PaymentStatus {
-    PENDING,
-    SUCCESS,
-    FAILED,
-    REFUNDED
-}
-
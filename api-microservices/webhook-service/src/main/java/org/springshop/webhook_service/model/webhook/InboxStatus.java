@@ -0,0 +1,9 @@
+package org.springshop.webhook_service.model.webhook;
+
+public enum InboxStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    // Agotó los reintentos: queda para revisión manual
+    DEAD
+}
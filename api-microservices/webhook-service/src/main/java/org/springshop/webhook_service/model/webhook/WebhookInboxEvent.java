@@ -0,0 +1,44 @@
+package org.springshop.webhook_service.model.webhook;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento de Stripe recibido y pendiente de procesar (el ID del evento evita duplicados)
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "webhook_inbox", indexes = {
+        @Index(name = "idx_webhook_inbox_status_next", columnList = "status, next_attempt_at")
+})
+public class WebhookInboxEvent {
+    @Id
+    @Column(name = "event_id", length = 255)
+    private String eventId;
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private InboxStatus status;
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+    // Próximo intento (PENDING) o fin del lease del worker que lo procesa (PROCESSING)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
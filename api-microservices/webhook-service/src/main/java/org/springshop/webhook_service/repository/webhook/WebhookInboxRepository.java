@@ -0,0 +1,31 @@
+package org.springshop.webhook_service.repository.webhook;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springshop.webhook_service.model.webhook.WebhookInboxEvent;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEvent, String> {
+
+    /**
+     * Inserta el evento si no existe. Devuelve 0 para los reenvíos de Stripe de un evento ya recibido.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO webhook_inbox (event_id, event_type, payload, status, attempts, next_attempt_at, received_at) "
+            + "VALUES (:eventId, :eventType, :payload, 'PENDING', 0, :now, :now) "
+            + "ON CONFLICT (event_id) DO NOTHING", nativeQuery = true)
+    public int insertIfAbsent(String eventId, String eventType, String payload, LocalDateTime now);
+
+    /**
+     * Lote de eventos listos para procesar: pendientes cuyo backoff ya venció, o en proceso cuyo lease
+     * caducó (el worker cayó). SKIP LOCKED permite varias instancias drenando en paralelo.
+     */
+    @Query(value = "SELECT * FROM webhook_inbox WHERE status IN ('PENDING', 'PROCESSING') AND next_attempt_at <= :now "
+            + "ORDER BY received_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    public List<WebhookInboxEvent> lockDueEvents(LocalDateTime now, int limit);
+}
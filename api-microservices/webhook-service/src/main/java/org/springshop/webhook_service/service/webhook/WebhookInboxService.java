@@ -0,0 +1,108 @@
+package org.springshop.webhook_service.service.webhook;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springshop.webhook_service.model.webhook.InboxStatus;
+import org.springshop.webhook_service.model.webhook.WebhookInboxEvent;
+import org.springshop.webhook_service.repository.webhook.WebhookInboxRepository;
+
+import com.stripe.model.Event;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Bandeja de entrada de eventos de Stripe. El controlador solo inserta el evento (deduplicado por su ID)
+ * y responde; los workers reclaman lotes, los procesan y registran el resultado con reintentos y backoff.
+ */
+@Service
+@Transactional
+public class WebhookInboxService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final WebhookInboxRepository inboxRepository;
+    private final int maxAttempts;
+    private final long backoffInitialMs;
+    private final long backoffMaxMs;
+    private final long leaseSeconds;
+
+    public WebhookInboxService(WebhookInboxRepository inboxRepository,
+            @Value("${webhook.inbox.max-attempts:8}") int maxAttempts,
+            @Value("${webhook.inbox.backoff-initial-ms:2000}") long backoffInitialMs,
+            @Value("${webhook.inbox.backoff-max-ms:600000}") long backoffMaxMs,
+            @Value("${webhook.inbox.lease-seconds:120}") long leaseSeconds) {
+        this.inboxRepository = inboxRepository;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitialMs = backoffInitialMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Guarda el evento verificado. Devuelve false si Stripe ya lo había entregado antes.
+     */
+    public boolean enqueue(Event event, String payload) {
+        return inboxRepository.insertIfAbsent(event.getId(), event.getType(), payload, LocalDateTime.now()) == 1;
+    }
+
+    /**
+     * Reclama un lote de eventos listos y los marca en proceso hasta que venza el lease.
+     */
+    public List<WebhookInboxEvent> claimDueEvents(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<WebhookInboxEvent> due = inboxRepository.lockDueEvents(now, limit);
+        for (WebhookInboxEvent inboxEvent : due) {
+            inboxEvent.setStatus(InboxStatus.PROCESSING);
+            inboxEvent.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+        }
+        return due;
+    }
+
+    public void markProcessed(String eventId) {
+        WebhookInboxEvent inboxEvent = findInboxEventOrThrow(eventId);
+        inboxEvent.setStatus(InboxStatus.PROCESSED);
+        inboxEvent.setProcessedAt(LocalDateTime.now());
+        inboxEvent.setLastError(null);
+    }
+
+    /**
+     * Registra un intento fallido: se reprograma con backoff exponencial o pasa a DEAD al agotar los intentos.
+     */
+    public void markFailed(String eventId, Exception error) {
+        WebhookInboxEvent inboxEvent = findInboxEventOrThrow(eventId);
+        int attempts = inboxEvent.getAttempts() + 1;
+        inboxEvent.setAttempts(attempts);
+        inboxEvent.setLastError(truncate(String.valueOf(error.getMessage())));
+
+        if (attempts >= maxAttempts) {
+            inboxEvent.setStatus(InboxStatus.DEAD);
+            System.err.println("Evento de Stripe " + eventId + " (" + inboxEvent.getEventType()
+                    + ") enviado a DEAD tras " + attempts + " intentos: " + error.getMessage());
+        } else {
+            inboxEvent.setStatus(InboxStatus.PENDING);
+            inboxEvent.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000));
+        }
+    }
+
+    // -------------------- MÉTODOS AUXILIARES --------------------
+
+    // Backoff exponencial con tope y un poco de jitter para no reintentar en bloque
+    private long backoffMs(int attempts) {
+        long delay = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts - 1, 20));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private WebhookInboxEvent findInboxEventOrThrow(String eventId) {
+        return inboxRepository.findById(eventId)
+                .orElseThrow(() -> new EntityNotFoundException("Webhook inbox event not found with id: " + eventId));
+    }
+}
@@ -0,0 +1,67 @@
+package org.springshop.webhook_service.service.webhook;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springshop.webhook_service.model.webhook.WebhookInboxEvent;
+
+import com.stripe.model.Event;
+import com.stripe.net.ApiResource;
+
+/**
+ * Drena la bandeja de entrada: reclama lotes de eventos y los procesa en paralelo
+ * (un hilo virtual por evento) fuera del ciclo de respuesta a Stripe.
+ */
+@Component
+public class WebhookInboxWorker {
+
+    private final WebhookInboxService inboxService;
+    private final WebhookService webhookService;
+    private final ExecutorService executor;
+    private final int batchSize;
+
+    public WebhookInboxWorker(WebhookInboxService inboxService, WebhookService webhookService,
+            @Qualifier("webhookInboxExecutor") ExecutorService executor,
+            @Value("${webhook.inbox.batch-size:20}") int batchSize) {
+        this.inboxService = inboxService;
+        this.webhookService = webhookService;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.inbox.poll-interval-ms:1000}")
+    public void drainInbox() {
+        List<WebhookInboxEvent> batch;
+        do {
+            batch = inboxService.claimDueEvents(batchSize);
+            List<Callable<Void>> tasks = batch.stream()
+                    .map(inboxEvent -> (Callable<Void>) () -> {
+                        process(inboxEvent);
+                        return null;
+                    })
+                    .toList();
+            try {
+                executor.invokeAll(tasks);
+            } catch (InterruptedException e) {
+                // Los eventos reclamados se retoman cuando venza su lease
+                Thread.currentThread().interrupt();
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void process(WebhookInboxEvent inboxEvent) {
+        try {
+            Event event = ApiResource.GSON.fromJson(inboxEvent.getPayload(), Event.class);
+            webhookService.processEvent(event);
+            inboxService.markProcessed(inboxEvent.getEventId());
+        } catch (Exception e) {
+            inboxService.markFailed(inboxEvent.getEventId(), e);
+        }
+    }
+}
@@ -5,17 +5,9 @@ import com.stripe.model.StripeObject;
 import com.stripe.model.checkout.Session;
 import org.springshop.webhook_service.model.order.Order;
 import org.springshop.webhook_service.model.order.OrderStatus;
-import org.springshop.webhook_service.client.PaymentClient;
-import org.springshop.webhook_service.client.ShipmentClient;
 import org.springshop.webhook_service.dto.order.OrderUpdateStatus;
-import org.springshop.webhook_service.dto.payment.PaymentRequest;
-import org.springshop.webhook_service.dto.payment.PaymentStatus;
-import org.springshop.webhook_service.dto.shipment.ShipmentRequest;
-import org.springshop.webhook_service.dto.shipment.ShipmentStatus;
 import org.springshop.webhook_service.client.OrderClient;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
@@ -25,13 +17,9 @@ import org.springframework.web.client.HttpClientErrorException;
 public class WebhookService {
 
     private final OrderClient orderClient;
-    private final PaymentClient paymentClient;
-    private final ShipmentClient shipmentClient;
 
-    public WebhookService(OrderClient orderClient, PaymentClient paymentClient, ShipmentClient shipmentClient) {
+    public WebhookService(OrderClient orderClient) {
         this.orderClient = orderClient;
-        this.paymentClient = paymentClient;
-        this.shipmentClient = shipmentClient;
     }
 
     public void processEvent(Event event) {
@@ -40,6 +28,9 @@ public class WebhookService {
             case "checkout.session.completed":
                 handleCheckoutSessionCompleted(event);
                 break;
+            case "checkout.session.expired":
+                handleCheckoutSessionExpired(event);
+                break;
             // Otros eventos importantes:
             // case "payment_intent.succeeded": // Usado para flujos más complejos
             // case "payment_intent.payment_failed":
@@ -74,25 +65,40 @@ public class WebhookService {
             return; 
         }
 
-        // 3. Crear y Persistir la entidad Payment
-        PaymentRequest payment = new PaymentRequest();
-        // El PaymentIntent.id o el Charge.id es el transactionId más fiable.
-        // Session.getPaymentIntent() devuelve el ID del PaymentIntent.
-        payment.setTransactionId(session.getPaymentIntent()); 
-        payment.setAmount(session.getAmountTotal() / 100.0); // Convertir centavos a decimal
-        payment.setCurrency(session.getCurrency());
-        payment.setStatus(PaymentStatus.SUCCESS);
-        payment.setOrderId(order.getId());
-        payment.setMethod("stripe checkout"); 
-        // Otros campos como 'method', 'createdAt', etc.
-
-        paymentClient.createPayment(payment);
-        // 4. Actualizar el estado de la Orden
-        //order.setStatus(OrderStatus.PAID);
-        orderClient.updateOrderStatus(orderId, new OrderUpdateStatus(OrderStatus.PAID));
-        shipmentClient.createShipment(new ShipmentRequest("No assign", "No assign", order.getId(), ShipmentStatus.CREATED, LocalDateTime.now(), LocalDateTime.now()));
+        // 3. Marcar la orden como pagada con los datos del pago. El servicio de órdenes registra el evento
+        // ORDER_PAID en su outbox y los servicios de pagos y envíos lo consumen de forma asíncrona.
+        // El PaymentIntent.id es el transactionId más fiable.
+        orderClient.updateOrderStatus(orderId, new OrderUpdateStatus(
+                OrderStatus.PAID,
+                session.getPaymentIntent(),
+                session.getAmountTotal() / 100.0, // Convertir centavos a decimal
+                session.getCurrency(),
+                "stripe checkout"));
         System.out.println("Pago exitoso registrado para la orden: " + orderId);
     }
+    private void handleCheckoutSessionExpired(Event event) {
+        StripeObject object = event.getDataObjectDeserializer().getObject().orElse(null);
+        if (!(object instanceof Session session)) {
+            System.err.println("Objeto de sesión no encontrado o inválido.");
+            return;
+        }
+
+        String orderIdStr = session.getMetadata().get("order_id");
+        if (orderIdStr == null) {
+            System.err.println("Falta order_id en la metadata de la sesión: " + session.getId());
+            return;
+        }
+        Integer orderId = Integer.parseInt(orderIdStr);
+        Order order = findOrderOrThrow(orderId);
+
+        // Solo una orden pendiente pasa a FAILED; el servicio de órdenes libera su stock retenido
+        if (order.getStatus() != OrderStatus.PENDING) {
+            System.out.println("Orden " + orderId + " no está pendiente (" + order.getStatus() + "). Ignorando expiración.");
+            return;
+        }
+        orderClient.updateOrderStatus(orderId, new OrderUpdateStatus(OrderStatus.FAILED));
+        System.out.println("Sesión de pago vencida para la orden: " + orderId);
+    }
     public Order findOrderOrThrow(Integer orderId) {
         return orderClient.findById(orderId).orElseThrow(() -> new HttpClientErrorException(HttpStatusCode.valueOf(404)));
     }
@@ -16,9 +16,25 @@ const api = axios.create({
   },
 });
 
+// El catálogo se sirve por páginas (tamaño máximo 200): se sigue X-Next-Cursor hasta la última
+const NEXT_CURSOR_HEADER = "x-next-cursor";
+const PAGE_SIZE = 200;
+
+async function getAllPages<T>(path: string): Promise<T[]> {
+  const items: T[] = [];
+  let cursor: string | undefined;
+  do {
+    const response = await api.get<T[]>(path, {
+      params: { size: PAGE_SIZE, ...(cursor ? { cursor } : {}) },
+    });
+    items.push(...response.data);
+    cursor = response.headers[NEXT_CURSOR_HEADER] ?? undefined;
+  } while (cursor);
+  return items;
+}
+
 export async function getProducts(): Promise<Product[]> {
-  const { data } = await api.get<Product[]>("");
-  return data;
+  return getAllPages<Product>("");
 }
 
 export async function getProductById(id: number): Promise<Product> {
@@ -38,8 +54,7 @@ export async function getCategories(): Promise<Category[]> {
 
 // --- APPARELS ---
 export async function getApparels(): Promise<Apparel[]> {
-  const { data } = await api.get<Apparel[]>("/apparels");
-  return data;
+  return getAllPages<Apparel>("/apparels");
 }
 
 export async function createApparel(data: any): Promise<Apparel> {
@@ -63,8 +78,7 @@ export async function getApparelCategories(): Promise<ApparelCategory[]> {
 
 // --- SUPPLEMENTS ---
 export async function getSupplements(): Promise<Supplement[]> {
-  const { data } = await api.get<Supplement[]>("/supplements");
-  return data;
+  return getAllPages<Supplement>("/supplements");
 }
 
 export async function createSupplement(data: any): Promise<Supplement> {
@@ -83,8 +97,7 @@ export async function deleteSupplement(id: number): Promise<void> {
 
 // --- WORKOUT ACCESSORIES ---
 export async function getWorkoutAccessories(): Promise<WorkoutAccessory[]> {
-  const { data } = await api.get<WorkoutAccessory[]>("/workout-accessories");
-  return data;
+  return getAllPages<WorkoutAccessory>("/workout-accessories");
 }
 
 export async function createWorkoutAccessory(data: any): Promise<WorkoutAccessory> {
@@ -8,6 +8,9 @@ class ProductApiRepository implements ProductRepository {
   final Dio _dioClient;
   ProductApiRepository(this._dioClient);
   static final productPath = "/products";
+  static const nextCursorHeader = "X-Next-Cursor";
+  // Tamaño de página máximo que acepta el catálogo
+  static const pageSize = 200;
 
   @override
   Future<Product> findById(int id) async {
@@ -51,12 +54,27 @@ class ProductApiRepository implements ProductRepository {
   @override
   Future<List<Product>> findAll() async {
     try {
-      final response = await _dioClient.get(productPath);
-      
-      if (response.statusCode == 200 && response.data is List) {
-        final List<dynamic> jsonList = response.data;
-        List<Product> products = [];
+      // El catálogo se sirve por páginas: se sigue X-Next-Cursor hasta la última
+      List<Product> products = [];
+      String? cursor;
+      do {
+        final response = await _dioClient.get(
+          productPath,
+          queryParameters: {
+            'size': pageSize,
+            if (cursor != null) 'cursor': cursor,
+          },
+        );
+
+        if (response.statusCode != 200 || response.data is! List) {
+          throw DioException(
+            requestOptions: response.requestOptions,
+            response: response,
+            error: 'Error al obtener la lista de productos: Status ${response.statusCode}',
+          );
+        }
 
+        final List<dynamic> jsonList = response.data;
         for (var productJson in jsonList) {
           try {
              products.add(
@@ -76,16 +94,11 @@ class ProductApiRepository implements ProductRepository {
               continue;
           }
         }
-        
-        return products;
-        
-      } else {
-         throw DioException(
-          requestOptions: response.requestOptions,
-          response: response,
-          error: 'Error al obtener la lista de productos: Status ${response.statusCode}',
-        );
-      }
+
+        cursor = response.headers.value(nextCursorHeader);
+      } while (cursor != null);
+
+      return products;
     } on DioException catch (e) {
       throw Exception('Fallo en la solicitud GET de findAll: ${e.message}');
     } catch (e) {